@@ -0,0 +1,200 @@
+package com.lightspeedhq.ecom;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Iterates over all results of a list request whose number is known from a count request, requesting up to
+ * parallelism pages at once through a {@link LightspeedEComAsyncClient}.<br>
+ * Every page takes a permit of the {@link Limiter}, the rate is kept by the limiter and the number of requests at once
+ * by parallelism. The results come in order of the pages, or unordered in the order the pages arrive (which keeps all
+ * requests busy when one page is slow).<br>
+ * Results that are created after the count are not included. {@link #close()} cancels the pages that are not used yet.
+ *
+ * <pre>
+ * try (Stream&lt;Order&gt; orders = asyncClient.streamCounted(countFilters -&gt; client.getOrdersCount(countFilters).get(),
+ *         LightspeedEComClient::getOrders, filters, 8, false)) {
+ *     orders.forEach(order -&gt; ...);
+ * }
+ * </pre>
+ */
+public class CountedPageIterator<T> implements Iterator<T>, Closeable {
+
+    private final LightspeedEComAsyncClient asyncClient;
+
+    private final BiFunction<LightspeedEComClient, Map<String, Object>, ? extends List<T>> request;
+
+    private final Map<String, Object> filters;
+
+    private final Priority priority;
+
+    private final int parallelism;
+
+    private final boolean ordered;
+
+    /**
+     * next page to request
+     */
+    private int page;
+
+    private final int lastPage;
+
+    /**
+     * requested pages in order of the pages, used when ordered
+     */
+    private final Deque<CompletableFuture<? extends List<T>>> requested = new ArrayDeque<>();
+
+    /**
+     * pages in order of arrival, used when unordered
+     */
+    private final BlockingQueue<CompletableFuture<? extends List<T>>> arrived = new LinkedBlockingQueue<>();
+
+    /**
+     * requested pages that are not used yet
+     */
+    private final Set<CompletableFuture<? extends List<T>>> pending = ConcurrentHashMap.newKeySet();
+
+    private Iterator<T> current = Collections.emptyIterator();
+
+    private boolean closed = false;
+
+    /**
+     * @param asyncClient client to request the pages with
+     * @param count number of results of the filters, including the ones on the pages before the first page
+     * @param request list request, like LightspeedEComClient::getProducts
+     * @param filters filters of the request, 'page' and 'limit' are used as the first page and page size
+     * @param priority priority of the page requests
+     * @param parallelism max number of pages requested at once
+     * @param ordered true to get the results in order of the pages
+     */
+    public CountedPageIterator(LightspeedEComAsyncClient asyncClient, int count, BiFunction<LightspeedEComClient, Map<String, Object>, ? extends List<T>> request,
+            Map<String, Object> filters, Priority priority, int parallelism, boolean ordered) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism > 0");
+        }
+        this.asyncClient = asyncClient;
+        this.request = request;
+        this.filters = new HashMap<>(filters);
+        this.priority = priority;
+        this.parallelism = parallelism;
+        this.ordered = ordered;
+        int limit = PageIterator.intFilter(filters, "limit", LightspeedEComClient.MAX_LIMIT);
+        this.page = PageIterator.intFilter(filters, "page", LightspeedEComClient.DEFAULT_PAGE);
+        //the pages before the first page hold the first results of the count
+        int left = Math.max(0, count - (page - LightspeedEComClient.DEFAULT_PAGE) * limit);
+        this.lastPage = page - 1 + (left + limit - 1) / limit;
+        this.filters.put("limit", limit);
+        fill();
+    }
+
+    /**
+     * Requests pages until parallelism pages are pending or all pages are requested.
+     */
+    private void fill() {
+        while (!closed && pending.size() < parallelism && page <= lastPage) {
+            Map<String, Object> pageFilters = new HashMap<>(filters);
+            pageFilters.put("page", page++);
+            CompletableFuture<? extends List<T>> future = asyncClient.execute(priority, client -> request.apply(client, pageFilters));
+            pending.add(future);
+            if (ordered) {
+                requested.add(future);
+            } else {
+                future.whenComplete((results, ex) -> arrived.add(future));
+            }
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!current.hasNext()) {
+            if (closed || pending.isEmpty()) {
+                return false;
+            }
+            try {
+                CompletableFuture<? extends List<T>> next = ordered ? requested.poll() : arrived.take();
+                pending.remove(next);
+                current = next.get().iterator();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                close();
+                throw new IllegalStateException("Interrupted while waiting for page", ex);
+            } catch (ExecutionException ex) {
+                close();
+                if (ex.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) ex.getCause();
+                }
+                throw new IllegalStateException(ex.getCause());
+            }
+            fill();
+        }
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return current.next();
+    }
+
+    /**
+     * Cancels the pages that are not used yet, the results of the current page can still be used.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        pending.forEach(future -> future.cancel(false));
+        pending.clear();
+        requested.clear();
+        arrived.clear();
+    }
+
+    /**
+     * @return sequential stream of this iterator, closing the stream closes the iterator
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, ordered ? Spliterator.ORDERED | Spliterator.NONNULL : Spliterator.NONNULL), false)
+                .onClose(this::close);
+    }
+
+    /**
+     * Counts the results and streams them.
+     *
+     * @param asyncClient client to request the count and pages with
+     * @param count number of results of the filters without 'page' and 'limit', like
+     * countFilters -&gt; client.getOrdersCount(countFilters).get()
+     * @param request list request, like LightspeedEComClient::getOrders
+     * @param filters filters of the request
+     * @param parallelism max number of pages requested at once
+     * @param ordered true to get the results in order of the pages
+     * @return lazy stream, close it when not all results are used
+     */
+    static <T> Stream<T> stream(LightspeedEComAsyncClient asyncClient, Function<Map<String, Object>, Integer> count,
+            BiFunction<LightspeedEComClient, Map<String, Object>, ? extends List<T>> request, Map<String, Object> filters, int parallelism, boolean ordered) {
+        Map<String, Object> countFilters = new HashMap<>(filters);
+        countFilters.remove("page");
+        countFilters.remove("limit");
+        int total = count.apply(countFilters);
+        return new CountedPageIterator<>(asyncClient, total, request, filters, Priority.NORMAL, parallelism, ordered).stream();
+    }
+}
@@ -0,0 +1,251 @@
+package com.lightspeedhq.ecom;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Counts the events of a {@link Limiter} and keeps the last {@link LimiterState}, readable from code and through JMX
+ * ({@link #register(String)}).
+ *
+ * <pre>
+ * DefaultLimiterMetrics metrics = new DefaultLimiterMetrics();
+ * metrics.register("yourshop");//com.lightspeedhq.ecom:type=Limiter,name="yourshop"
+ * LightspeedEComClient client = LightspeedEComClient.builder()...metrics(metrics).build();
+ * </pre>
+ */
+public class DefaultLimiterMetrics implements LimiterMetrics, LimiterMetricsMXBean {
+
+    private static final int BUCKETS = 22;
+
+    private final LongAdder permits = new LongAdder();
+    private final LongAdder permitsRefused = new LongAdder();
+    private final LongAdder permitsWaited = new LongAdder();
+    private final LongAdder limitReached = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder tooManyRequests = new LongAdder();
+
+    private final LongAdder waitTimeTotal = new LongAdder();
+    private final LongAccumulator waitTimeMax = new LongAccumulator(Math::max, 0);
+    private final AtomicLongArray waitTimeHistogram = new AtomicLongArray(BUCKETS);
+
+    private final ConcurrentMap<String, LongAdder> endpoints = new ConcurrentHashMap<>();
+
+    private volatile LimiterState state = LimiterState.EMPTY;
+
+    private ObjectName objectName;
+
+    @Override
+    public void permitAcquired(Priority priority, long waitNanos) {
+        permits.increment();
+        long waitMillis = TimeUnit.NANOSECONDS.toMillis(waitNanos);
+        if (waitNanos > 0) {
+            permitsWaited.increment();
+            waitTimeTotal.add(waitMillis);
+            waitTimeMax.accumulate(waitMillis);
+        }
+        //smallest bucket i with waitMillis <= 2^i
+        int bucket = waitMillis <= 1 ? 0 : 64 - Long.numberOfLeadingZeros(waitMillis - 1);
+        waitTimeHistogram.incrementAndGet(Math.min(bucket, BUCKETS - 1));
+    }
+
+    @Override
+    public void permitRefused(Priority priority) {
+        permitsRefused.increment();
+    }
+
+    @Override
+    public void limitReached(long waitMillis) {
+        limitReached.increment();
+    }
+
+    @Override
+    public void retried() {
+        retries.increment();
+    }
+
+    @Override
+    public void tooManyRequests() {
+        tooManyRequests.increment();
+    }
+
+    @Override
+    public void requestSent(String endpoint) {
+        endpoints.computeIfAbsent(endpoint, key -> new LongAdder()).increment();
+    }
+
+    @Override
+    public void stateUpdated(LimiterState state) {
+        this.state = state;
+    }
+
+    /**
+     * Registers this at the platform MBean server.
+     *
+     * @param name name of the limiter, like the shop or api key
+     */
+    public synchronized void register(String name) {
+        try {
+            ObjectName registered = new ObjectName("com.lightspeedhq.ecom:type=Limiter,name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, registered);
+            objectName = registered;
+        } catch (JMException ex) {
+            throw new IllegalStateException("Could not register limiter metrics " + name, ex);
+        }
+    }
+
+    /**
+     * Removes the registration of {@link #register(String)}.
+     */
+    public synchronized void unregister() {
+        if (objectName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            objectName = null;
+        } catch (JMException ex) {
+            throw new IllegalStateException("Could not unregister limiter metrics " + objectName, ex);
+        }
+    }
+
+    /**
+     * @return last numbers the server sent
+     */
+    public LimiterState getState() {
+        return state;
+    }
+
+    @Override
+    public long getPermits() {
+        return permits.sum();
+    }
+
+    @Override
+    public long getPermitsRefused() {
+        return permitsRefused.sum();
+    }
+
+    @Override
+    public long getPermitsWaited() {
+        return permitsWaited.sum();
+    }
+
+    @Override
+    public long getLimitReached() {
+        return limitReached.sum();
+    }
+
+    @Override
+    public long getRetries() {
+        return retries.sum();
+    }
+
+    @Override
+    public long getTooManyRequests() {
+        return tooManyRequests.sum();
+    }
+
+    @Override
+    public int getLimit5min() {
+        return state.getLimit5min();
+    }
+
+    @Override
+    public int getLimit1h() {
+        return state.getLimit1h();
+    }
+
+    @Override
+    public int getLimit1d() {
+        return state.getLimit1d();
+    }
+
+    @Override
+    public int getRemaining5min() {
+        return state.getRemaining5min();
+    }
+
+    @Override
+    public int getRemaining1h() {
+        return state.getRemaining1h();
+    }
+
+    @Override
+    public int getRemaining1d() {
+        return state.getRemaining1d();
+    }
+
+    @Override
+    public double getUtilisation5min() {
+        LimiterState current = state;
+        return utilisation(current.getLimit5min(), current.getRemaining5min());
+    }
+
+    @Override
+    public double getUtilisation1h() {
+        LimiterState current = state;
+        return utilisation(current.getLimit1h(), current.getRemaining1h());
+    }
+
+    @Override
+    public double getUtilisation1d() {
+        LimiterState current = state;
+        return utilisation(current.getLimit1d(), current.getRemaining1d());
+    }
+
+    private static double utilisation(int limit, int remaining) {
+        return limit == 0 ? 0 : (double) (limit - remaining) / limit;
+    }
+
+    @Override
+    public double getWaitTimeMeanMillis() {
+        long waited = permitsWaited.sum();
+        return waited == 0 ? 0 : (double) waitTimeTotal.sum() / waited;
+    }
+
+    @Override
+    public long getWaitTimeMaxMillis() {
+        return waitTimeMax.get();
+    }
+
+    @Override
+    public long[] getWaitTimeHistogram() {
+        long[] histogram = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            histogram[i] = waitTimeHistogram.get(i);
+        }
+        return histogram;
+    }
+
+    @Override
+    public Map<String, Long> getRequestsPerEndpoint() {
+        Map<String, Long> requests = new TreeMap<>();
+        endpoints.forEach((endpoint, count) -> requests.put(endpoint, count.sum()));
+        return requests;
+    }
+
+    @Override
+    public void reset() {
+        permits.reset();
+        permitsRefused.reset();
+        permitsWaited.reset();
+        limitReached.reset();
+        retries.reset();
+        tooManyRequests.reset();
+        waitTimeTotal.reset();
+        waitTimeMax.reset();
+        for (int i = 0; i < BUCKETS; i++) {
+            waitTimeHistogram.set(i, 0);
+        }
+        endpoints.clear();
+    }
+}
@@ -0,0 +1,123 @@
+package com.lightspeedhq.ecom;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.Closeable;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import lombok.extern.java.Log;
+
+/**
+ * Runs the tasks of several tenants on a fixed number of workers, taking turns between the tenants.<br>
+ * Every tenant has its own queue, the workers take one task of a tenant and put the tenant back at the end of the
+ * line. A tenant uses at most maxPerTenant workers at once, so a tenant with many tasks can't starve the others.
+ */
+@Log
+class FairExecutor implements Closeable {
+
+    private final ExecutorService workers;
+
+    private final int maxPerTenant;
+
+    /**
+     * tenants with tasks, a tenant is in here once for every worker it may use
+     */
+    private final BlockingQueue<Tenant> turns = new LinkedBlockingQueue<>();
+
+    private volatile boolean closed = false;
+
+    /**
+     * @param threads number of workers
+     * @param maxPerTenant max number of workers a tenant may use at once
+     */
+    FairExecutor(int threads, int maxPerTenant) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("threads > 0");
+        }
+        if (maxPerTenant <= 0) {
+            throw new IllegalArgumentException("maxPerTenant > 0");
+        }
+        this.maxPerTenant = maxPerTenant;
+        this.workers = Executors.newFixedThreadPool(threads, new ThreadFactoryBuilder().setDaemon(true).setNameFormat("lightspeedecom-tenant-%d").build());
+        for (int i = 0; i < threads; i++) {
+            workers.execute(this::work);
+        }
+    }
+
+    /**
+     * @return executor that queues the tasks of a new tenant
+     */
+    Executor newTenant() {
+        return new Tenant();
+    }
+
+    private void work() {
+        try {
+            while (!closed) {
+                Tenant tenant = turns.take();
+                Runnable task = tenant.tasks.poll();
+                if (task == null) {
+                    tenant.leave();
+                    continue;
+                }
+                try {
+                    task.run();
+                } catch (Throwable ex) {
+                    log.log(Level.WARNING, "Task of tenant failed.", ex);//the worker keeps running
+                }
+                turns.add(tenant);//back at the end of the line
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        workers.shutdownNow();
+    }
+
+    private class Tenant implements Executor {
+
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+        /**
+         * number of turns of this tenant in the line
+         */
+        private final AtomicInteger turnsTaken = new AtomicInteger();
+
+        @Override
+        public void execute(Runnable task) {
+            if (closed) {
+                throw new RejectedExecutionException("closed");
+            }
+            tasks.add(task);
+            join();
+        }
+
+        private void join() {
+            int taken;
+            while ((taken = turnsTaken.get()) < maxPerTenant) {
+                if (turnsTaken.compareAndSet(taken, taken + 1)) {
+                    turns.add(this);
+                    return;
+                }
+            }
+        }
+
+        private void leave() {
+            turnsTaken.decrementAndGet();
+            if (!tasks.isEmpty()) {
+                join();//a task was added while leaving
+            }
+        }
+    }
+}
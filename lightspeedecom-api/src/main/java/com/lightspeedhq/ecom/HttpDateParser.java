@@ -0,0 +1,129 @@
+package com.lightspeedhq.ecom;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Parses the <code>Date</code> header (RFC 1123, like <code>Sun, 06 Nov 1994 08:49:37 GMT</code>) to epoch millis.<br>
+ * The fixed GMT format the server sends is read directly from the characters, other forms are parsed with
+ * {@link DateTimeFormatter#RFC_1123_DATE_TIME}. The last parsed value is cached, the header only changes once a
+ * second. Instances are thread-safe.
+ */
+public final class HttpDateParser {
+
+    private static final String MONTHS = "JanFebMarAprMayJunJulAugSepOctNovDec";
+
+    /**
+     * Last parsed header and its value, replaced as a whole so readers never see a mixed pair.
+     */
+    private volatile Parsed last = new Parsed("", 0);
+
+    /**
+     * @param value value of the <code>Date</code> header
+     * @return epoch millis
+     * @throws DateTimeParseException if the value is not a RFC 1123 date
+     */
+    public long parse(String value) {
+        Parsed cached = last;
+        if (cached.value.equals(value)) {
+            return cached.millis;
+        }
+        long millis = parseFixed(value);
+        if (millis == Long.MIN_VALUE) {
+            millis = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+        }
+        last = new Parsed(value, millis);
+        return millis;
+    }
+
+    /**
+     * @return epoch millis, or {@link Long#MIN_VALUE} if the value is not in the fixed format
+     * @throws DateTimeParseException if the value is in the fixed format but a field is not a number or out of range
+     */
+    static long parseFixed(String value) {
+        //Sun, 06 Nov 1994 08:49:37 GMT
+        //0123456789012345678901234567
+        if (value.length() != 29 || value.charAt(3) != ',' || value.charAt(4) != ' ' || value.charAt(7) != ' '
+                || value.charAt(11) != ' ' || value.charAt(16) != ' ' || value.charAt(19) != ':'
+                || value.charAt(22) != ':' || !value.endsWith(" GMT")) {
+            return Long.MIN_VALUE;
+        }
+        int year = field(value, digits(value, 12, 4), 12, 0, 9999);
+        int month = field(value, month(value, 8), 8, 1, 12);
+        int day = field(value, digits(value, 5, 2), 5, 1, lengthOfMonth(year, month));
+        int hour = field(value, digits(value, 17, 2), 17, 0, 23);
+        int minute = field(value, digits(value, 20, 2), 20, 0, 59);
+        int second = field(value, digits(value, 23, 2), 23, 0, 59);
+        long days = daysFromCivil(year, month, day);
+        return ((days * 24 + hour) * 60 + minute) * 60_000L + second * 1000L;
+    }
+
+    /**
+     * @return the number, if it is in the range
+     * @throws DateTimeParseException if the number is not in the range, -1 is no number
+     */
+    private static int field(String value, int number, int offset, int min, int max) {
+        if (number < min || number > max) {
+            throw new DateTimeParseException("Text '" + value + "' has an invalid field at index " + offset, value, offset);
+        }
+        return number;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        if (month == 2) {
+            return (year % 4 == 0 && year % 100 != 0) || year % 400 == 0 ? 29 : 28;
+        }
+        return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+    }
+
+    /**
+     * @return the number, -1 if a character is not a digit
+     */
+    private static int digits(String value, int offset, int count) {
+        int number = 0;
+        for (int i = offset; i < offset + count; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            number = number * 10 + (c - '0');
+        }
+        return number;
+    }
+
+    /**
+     * @return month 1-12, -1 if unknown
+     */
+    private static int month(String value, int offset) {
+        for (int i = 0; i < MONTHS.length(); i += 3) {
+            if (value.regionMatches(offset, MONTHS, i, 3)) {
+                return i / 3 + 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Days since 1970-01-01 of a date in the proleptic Gregorian calendar.
+     */
+    private static long daysFromCivil(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = (y >= 0 ? y : y - 399) / 400;
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097L + dayOfEra - 719468;
+    }
+
+    private static final class Parsed {
+
+        private final String value;
+        private final long millis;
+
+        private Parsed(String value, long millis) {
+            this.value = value;
+            this.millis = millis;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.lightspeedhq.ecom;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Keeps the {@link LimiterState} in memory, shared by the threads of this process only.
+ */
+public class InMemoryLimiterStore implements LimiterStore {
+
+    private final AtomicReference<LimiterState> state = new AtomicReference<>(LimiterState.EMPTY);
+
+    @Override
+    public LimiterState get() {
+        return state.get();
+    }
+
+    @Override
+    public boolean compareAndSet(LimiterState expect, LimiterState update) {
+        return state.compareAndSet(expect, update);
+    }
+}
@@ -0,0 +1,112 @@
+package com.lightspeedhq.ecom;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Runs requests of a {@link LightspeedEComClient} asynchronously.<br>
+ * The permit of the {@link Limiter} is acquired before the request is handed to the executor, so a request that
+ * waits for the rate limit doesn't hold a thread. Only the request itself runs on the executor.<br>
+ * Every call should do a single request on the client, additional requests acquire their permit blocking.
+ *
+ * <pre>
+ * CompletableFuture&lt;Order.List&gt; orders = asyncClient.execute(client -&gt; client.getOrders(filters));
+ * </pre>
+ */
+public class LightspeedEComAsyncClient {
+
+    private final LightspeedEComClient client;
+
+    private final Limiter limiter;
+
+    private final Executor executor;
+
+    /**
+     * @param client client to do the requests with
+     * @param limiter limiter of the client, null if the client has no limit
+     * @param executor executor that runs the requests
+     */
+    public LightspeedEComAsyncClient(LightspeedEComClient client, Limiter limiter, Executor executor) {
+        this.client = client;
+        this.limiter = limiter;
+        this.executor = executor;
+    }
+
+    /**
+     * @param request request to do on the client
+     * @return future with the result of the request, cancelling it before the request is started gives the permit back
+     */
+    public <T> CompletableFuture<T> execute(Function<LightspeedEComClient, T> request) {
+        return execute(Priority.NORMAL, request);
+    }
+
+    /**
+     * @param priority priority of the request
+     * @param request request to do on the client
+     * @return future with the result of the request, cancelling it before the request is started gives the permit back
+     */
+    public <T> CompletableFuture<T> execute(Priority priority, Function<LightspeedEComClient, T> request) {
+        if (limiter == null) {
+            return CompletableFuture.supplyAsync(() -> request.apply(client), executor);
+        }
+        CompletableFuture<Void> permit = limiter.acquireAsync(priority);
+        //set by the request or the cancellation, whichever comes first
+        AtomicBoolean claimed = new AtomicBoolean();
+        CompletableFuture<T> result = permit.thenApplyAsync(ignored -> {
+            if (!claimed.compareAndSet(false, true)) {
+                throw new CancellationException();
+            }
+            return limiter.runWithPermit(() -> request.apply(client));
+        }, executor);
+        result.whenComplete((value, ex) -> {
+            if (result.isCancelled() && !permit.cancel(false) && !permit.isCompletedExceptionally() && claimed.compareAndSet(false, true)) {
+                limiter.release();//the permit was granted, but the request will not run
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Streams all results of a list request, requesting up to readAhead pages in the background.
+     *
+     * @param request list request, like LightspeedEComClient::getProducts
+     * @param filters filters of the request
+     * @param readAhead max number of pages requested ahead of the one being used
+     * @return lazy stream, close it when not all results are used
+     * @see PrefetchingPageIterator
+     */
+    public <T> Stream<T> stream(BiFunction<LightspeedEComClient, Map<String, Object>, ? extends List<T>> request, Map<String, Object> filters, int readAhead) {
+        return new PrefetchingPageIterator<>(this, request, filters, Priority.NORMAL, readAhead).stream();
+    }
+
+    /**
+     * Counts the results of a list request and streams them, requesting up to parallelism pages at once.
+     *
+     * @param count number of results of the filters without 'page' and 'limit', like
+     * countFilters -&gt; client.getOrdersCount(countFilters).get()
+     * @param request list request, like LightspeedEComClient::getOrders
+     * @param filters filters of the request
+     * @param parallelism max number of pages requested at once
+     * @param ordered true to get the results in order of the pages, false in the order the pages arrive
+     * @return lazy stream, close it when not all results are used
+     * @see CountedPageIterator
+     */
+    public <T> Stream<T> streamCounted(Function<Map<String, Object>, Integer> count, BiFunction<LightspeedEComClient, Map<String, Object>, ? extends List<T>> request,
+            Map<String, Object> filters, int parallelism, boolean ordered) {
+        return CountedPageIterator.stream(this, count, request, filters, parallelism, ordered);
+    }
+
+    /**
+     * @return the client that is used for the requests
+     */
+    public LightspeedEComClient getClient() {
+        return client;
+    }
+}
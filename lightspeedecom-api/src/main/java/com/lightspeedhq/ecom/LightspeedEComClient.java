@@ -6,6 +6,7 @@ import feign.QueryMap;
 import feign.RequestLine;
 import java.util.Collections;
 import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * Lightspeed eCom offers a powerful set of API’s for developers to create awesome apps or single shop connections.
@@ -122,6 +123,19 @@ public interface LightspeedEComClient {
     @RequestLine("GET /brands.json")
     public Brand.List getBrands(@QueryMap Map<String, Object> filters);
 
+    /**
+     * Retrieve all brands matching the filters, page by page while the stream is consumed.
+     *
+     * @param filters as for {@link #getBrands(Map)}, 'page' is the first page and 'limit' the page size (by default {@link #MAX_LIMIT})
+     *
+     * @return lazy stream of {@link com.lightspeedhq.ecom.domain.Brand}s
+     *
+     * @see PageIterator
+     */
+    public default Stream<Brand> streamBrands(Map<String, Object> filters) {
+        return PageIterator.stream(this::getBrands, filters);
+    }
+
     /**
      * Retrieve all the brands from this shop.
      *
@@ -144,6 +158,19 @@ public interface LightspeedEComClient {
     @RequestLine("GET /categories.json")
     public Category.List getCategories(@QueryMap Map<String, Object> filters);
 
+    /**
+     * Retrieve all categories matching the filters, page by page while the stream is consumed.
+     *
+     * @param filters as for {@link #getCategories(Map)}, 'page' is the first page and 'limit' the page size (by default {@link #MAX_LIMIT})
+     *
+     * @return lazy stream of {@link com.lightspeedhq.ecom.domain.Category}s
+     *
+     * @see PageIterator
+     */
+    public default Stream<Category> streamCategories(Map<String, Object> filters) {
+        return PageIterator.stream(this::getCategories, filters);
+    }
+
     /**
      * {@link #getCategories(java.util.Map) } without filters.
      *
@@ -187,6 +214,19 @@ public interface LightspeedEComClient {
     @RequestLine("GET /categories/products.json")
     public CategoriesProduct.List getCategoriesProducts(@QueryMap Map<String, Object> filters);
 
+    /**
+     * Retrieve all categories products matching the filters, page by page while the stream is consumed.
+     *
+     * @param filters as for {@link #getCategoriesProducts(Map)}, 'page' is the first page and 'limit' the page size (by default {@link #MAX_LIMIT})
+     *
+     * @return lazy stream of {@link com.lightspeedhq.ecom.domain.CategoriesProduct}s
+     *
+     * @see PageIterator
+     */
+    public default Stream<CategoriesProduct> streamCategoriesProducts(Map<String, Object> filters) {
+        return PageIterator.stream(this::getCategoriesProducts, filters);
+    }
+
     /**
      * {@link #getCategoriesProducts(java.util.Map) } without filter.
      *
@@ -256,6 +296,19 @@ public interface LightspeedEComClient {
     @RequestLine("GET /groups/customers.json")
     public GroupCustomer.List getGroupsCustomers(@QueryMap Map<String, Object> filters);
 
+    /**
+     * Retrieve all groups customers matching the filters, page by page while the stream is consumed.
+     *
+     * @param filters as for {@link #getGroupsCustomers(Map)}, 'page' is the first page and 'limit' the page size (by default {@link #MAX_LIMIT})
+     *
+     * @return lazy stream of {@link com.lightspeedhq.ecom.domain.GroupCustomer}s
+     *
+     * @see PageIterator
+     */
+    public default Stream<GroupCustomer> streamGroupsCustomers(Map<String, Object> filters) {
+        return PageIterator.stream(this::getGroupsCustomers, filters);
+    }
+
     /**
      * All groups with customers<br/>
      * Retrieve a list of all customers that have been placed in groups.
@@ -327,6 +380,19 @@ public interface LightspeedEComClient {
     @RequestLine("GET /customers.json")
     public Customer.List getCustomers(@QueryMap Map<String, Object> filters);
 
+    /**
+     * Retrieve all customers matching the filters, page by page while the stream is consumed.
+     *
+     * @param filters as for {@link #getCustomers(Map)}, 'page' is the first page and 'limit' the page size (by default {@link #MAX_LIMIT})
+     *
+     * @return lazy stream of {@link com.lightspeedhq.ecom.domain.Customer}s
+     *
+     * @see PageIterator
+     */
+    public default Stream<Customer> streamCustomers(Map<String, Object> filters) {
+        return PageIterator.stream(this::getCustomers, filters);
+    }
+
     /**
      * Update an existing customer based on the given parameters.
      *
@@ -430,6 +496,41 @@ public interface LightspeedEComClient {
     @RequestLine("GET /orders.json")
     public Order.List getOrders(@QueryMap Map<String, Object> filters);
 
+    /**
+     * Retrieve the number of orders matching the filters.
+     *
+     * @param filters as 'customer', 'created_at_min' or 'created_at_max'
+     *
+     * @return count of orders
+     *
+     * @see <a href="http://developers.lightspeedhq.com/ecom/endpoints/order/">http://developers.lightspeedhq.com/ecom/endpoints/order/</a>
+     */
+    @RequestLine("GET /orders/count.json")
+    public Count getOrdersCount(@QueryMap Map<String, Object> filters);
+
+    /**
+     * Retrieve the number of orders in the shop.
+     *
+     * @return count of orders
+     *
+     * @see <a href="http://developers.lightspeedhq.com/ecom/endpoints/order/">http://developers.lightspeedhq.com/ecom/endpoints/order/</a>
+     */
+    @RequestLine("GET /orders/count.json")
+    public Count getOrdersCount();
+
+    /**
+     * Retrieve all orders matching the filters, page by page while the stream is consumed.
+     *
+     * @param filters as for {@link #getOrders(Map)}, 'page' is the first page and 'limit' the page size (by default {@link #MAX_LIMIT})
+     *
+     * @return lazy stream of {@link com.lightspeedhq.ecom.domain.Order}s
+     *
+     * @see PageIterator
+     */
+    public default Stream<Order> streamOrders(Map<String, Object> filters) {
+        return PageIterator.stream(this::getOrders, filters);
+    }
+
     /**
      * Retrieve a list of all {@link com.lightspeedhq.ecom.domain.Product}s from this shop.
      *
@@ -442,6 +543,19 @@ public interface LightspeedEComClient {
     @RequestLine("GET /products.json")
     public Product.List getProducts(@QueryMap Map<String, Object> filters);
 
+    /**
+     * Retrieve all products matching the filters, page by page while the stream is consumed.
+     *
+     * @param filters as for {@link #getProducts(Map)}, 'page' is the first page and 'limit' the page size (by default {@link #MAX_LIMIT})
+     *
+     * @return lazy stream of {@link com.lightspeedhq.ecom.domain.Product}s
+     *
+     * @see PageIterator
+     */
+    public default Stream<Product> streamProducts(Map<String, Object> filters) {
+        return PageIterator.stream(this::getProducts, filters);
+    }
+
     /**
      * Retrieve a single {@link com.lightspeedhq.ecom.domain.Product} based on the unique identifier.
      *
@@ -511,6 +625,19 @@ public interface LightspeedEComClient {
     @RequestLine("GET /quotes.json")
     public Quote.List getQuotes(@QueryMap Map<String, Object> filters);
 
+    /**
+     * Retrieve all quotes matching the filters, page by page while the stream is consumed.
+     *
+     * @param filters as for {@link #getQuotes(Map)}, 'page' is the first page and 'limit' the page size (by default {@link #MAX_LIMIT})
+     *
+     * @return lazy stream of {@link com.lightspeedhq.ecom.domain.Quote}s
+     *
+     * @see PageIterator
+     */
+    public default Stream<Quote> streamQuotes(Map<String, Object> filters) {
+        return PageIterator.stream(this::getQuotes, filters);
+    }
+
     /**
      * Retrieve a list of all {@link com.lightspeedhq.ecom.domain.Supplier}s from the shop.
      *
@@ -535,6 +662,19 @@ public interface LightspeedEComClient {
     @RequestLine("GET /types/attributes.json")
     public TypesAttribute.List getTypeAttributes(@QueryMap Map<String, Object> filters);
 
+    /**
+     * Retrieve all types attributes matching the filters, page by page while the stream is consumed.
+     *
+     * @param filters as for {@link #getTypeAttributes(Map)}, 'page' is the first page and 'limit' the page size (by default {@link #MAX_LIMIT})
+     *
+     * @return lazy stream of {@link com.lightspeedhq.ecom.domain.TypesAttribute}s
+     *
+     * @see PageIterator
+     */
+    public default Stream<TypesAttribute> streamTypeAttributes(Map<String, Object> filters) {
+        return PageIterator.stream(this::getTypeAttributes, filters);
+    }
+
     /**
      * Retrieve a single {@link com.lightspeedhq.ecom.domain.Type}s based on the unique identifier.
      *
@@ -559,6 +699,19 @@ public interface LightspeedEComClient {
     @RequestLine("GET /variants.json")
     public Variant.List getVariants(@QueryMap Map<String, Object> filters);
 
+    /**
+     * Retrieve all variants matching the filters, page by page while the stream is consumed.
+     *
+     * @param filters as for {@link #getVariants(Map)}, 'page' is the first page and 'limit' the page size (by default {@link #MAX_LIMIT})
+     *
+     * @return lazy stream of {@link com.lightspeedhq.ecom.domain.Variant}s
+     *
+     * @see PageIterator
+     */
+    public default Stream<Variant> streamVariants(Map<String, Object> filters) {
+        return PageIterator.stream(this::getVariants, filters);
+    }
+
     @RequestLine("GET /variants/count.json")
     public Count getVariantCount();
 
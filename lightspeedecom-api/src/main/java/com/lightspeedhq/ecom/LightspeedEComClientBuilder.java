@@ -1,9 +1,9 @@
 package com.lightspeedhq.ecom;
 
-import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JSR310Module;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.lightspeedhq.ecom.jackson.ObjectMappers;
+import feign.Client;
 import feign.Feign;
 import feign.RequestInterceptor;
 import feign.Retryer;
@@ -14,15 +14,23 @@ import feign.codec.ErrorDecoder;
 import feign.jackson.JacksonDecoder;
 import feign.jackson.JacksonEncoder;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.TimeZone;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import lombok.extern.java.Log;
 
 /**
  *
  * @author stevensnoeijen
  */
+@Log
 public class LightspeedEComClientBuilder {
 
     private String cluster, language;
@@ -32,6 +40,16 @@ public class LightspeedEComClientBuilder {
      * Used for limiting the requests
      */
     private int minRemaining = -1, maxRequests = -1;
+    private int burst = Limiter.DEFAULT_BURST;
+    private ScheduledExecutorService scheduler;
+    private LimiterStore limiterStore;
+    private final Map<Priority, int[]> lanes = new EnumMap<>(Priority.class);
+    private Executor executor;
+    private boolean warmUp = false;
+    private long synchronizePeriod = 0;
+    private int retryBudget = -1;
+    private LimiterMetrics metrics = LimiterMetrics.NONE;
+    private Client httpClient = new Client.Default(null, null);
 
     public LightspeedEComClientBuilder() {
 
@@ -86,54 +104,268 @@ public class LightspeedEComClientBuilder {
         return this;
     }
 
+    /**
+     * @param burst number of requests that may be done at once, before the requests are spread over the rate-limit windows
+     */
+    public LightspeedEComClientBuilder burst(int burst) {
+        if (burst <= 0) {
+            throw new IllegalArgumentException("burst > 0");
+        }
+
+        this.burst = burst;
+        return this;
+    }
+
+    /**
+     * @param priority priority to set the lane of
+     * @param reserve requests that must be left for higher priorities, on top of minRemaining
+     * @param weight share of the requests while requests of several priorities are waiting
+     * @see Limiter#setLane(Priority, int, int)
+     */
+    public LightspeedEComClientBuilder priority(Priority priority, int reserve, int weight) {
+        Objects.requireNonNull(priority);
+        if (reserve < 0) {
+            throw new IllegalArgumentException("reserve >= 0");
+        }
+        if (weight <= 0) {
+            throw new IllegalArgumentException("weight > 0");
+        }
+
+        this.lanes.put(priority, new int[]{reserve, weight});
+        return this;
+    }
+
+    /**
+     * @param retryBudget number of retries that may be done within a 5 minute window, by default a tenth of maxRequests
+     * @see Limiter#setRetryBudget(int)
+     */
+    public LightspeedEComClientBuilder retryBudget(int retryBudget) {
+        if (retryBudget < 0) {
+            throw new IllegalArgumentException("retryBudget >= 0");
+        }
+
+        this.retryBudget = retryBudget;
+        return this;
+    }
+
+    /**
+     * @param metrics receiver of the limiter events, like {@link DefaultLimiterMetrics}. Only used with
+     * {@link #limit(int, int)}, the clients of a {@link LightspeedEComClientFactory} share it without the state
+     * updates, unless the factory is given metrics per shop
+     */
+    public LightspeedEComClientBuilder metrics(LimiterMetrics metrics) {
+        this.metrics = Objects.requireNonNull(metrics);
+        return this;
+    }
+
+    /**
+     * @param scheduler scheduler that hands out the permits of the limiter to waiting requests
+     */
+    public LightspeedEComClientBuilder scheduler(ScheduledExecutorService scheduler) {
+        this.scheduler = Objects.requireNonNull(scheduler);
+        return this;
+    }
+
+    /**
+     * @param limiterStore store of the limiter bookkeeping, use a {@link MappedFileLimiterStore} to share the limit
+     * with other processes that use the same api key
+     */
+    public LightspeedEComClientBuilder limiterStore(LimiterStore limiterStore) {
+        this.limiterStore = Objects.requireNonNull(limiterStore);
+        return this;
+    }
+
+    /**
+     * @param httpClient http client that sends the requests, shared by all clients of this builder
+     */
+    public LightspeedEComClientBuilder httpClient(Client httpClient) {
+        this.httpClient = Objects.requireNonNull(httpClient);
+        return this;
+    }
+
+    /**
+     * @param executor executor that runs the requests of the {@link LightspeedEComAsyncClient}
+     */
+    public LightspeedEComClientBuilder executor(Executor executor) {
+        this.executor = Objects.requireNonNull(executor);
+        return this;
+    }
+
+    /**
+     * Loads the account rate limit when the client is built, so the limiter throttles from the first request instead
+     * of after the first response. Requires {@link #limit(int, int)}. When the account rate limit could not be loaded
+     * the client is built anyway and the limiter learns the limit from the first response.
+     *
+     * @param period time between later synchronizations that correct drift, 0 to only load it once
+     * @param unit unit of period
+     * @see Limiter#update(com.lightspeedhq.ecom.domain.AccountRatelimit)
+     */
+    public LightspeedEComClientBuilder warmUp(long period, TimeUnit unit) {
+        Objects.requireNonNull(unit);
+        if (period < 0) {
+            throw new IllegalArgumentException("period >= 0");
+        }
+
+        this.warmUp = true;
+        this.synchronizePeriod = unit.toMillis(period);
+        return this;
+    }
+
     public LightspeedEComClient build() {
+        Limiter limiter = createLimiter(limiterStore != null ? limiterStore : new InMemoryLimiterStore());
+        LightspeedEComClient client = build(limiter, apiKey, apiSecret);
+        if (limiter != null && warmUp) {
+            warmUp(limiter, client, () -> new LightspeedEComAsyncClient(client, limiter, executor()));//the executor runs the synchronization
+        }
+        return client;
+    }
+
+    /**
+     * Builds a client whose requests wait for the rate limit without holding a thread.
+     */
+    public LightspeedEComAsyncClient buildAsync() {
+        Limiter limiter = createLimiter(limiterStore != null ? limiterStore : new InMemoryLimiterStore());
+        LightspeedEComClient client = build(limiter, apiKey, apiSecret);
+        LightspeedEComAsyncClient asyncClient = new LightspeedEComAsyncClient(client, limiter, executor());
+        if (limiter != null) {
+            warmUp(limiter, client, () -> asyncClient);
+        }
+        return asyncClient;
+    }
+
+    /**
+     * @param limiter limiter to warm up
+     * @param client client of the limiter, loads the account rate limit
+     * @param asyncClient async client of the limiter, only asked for when the limiter is synchronized periodically
+     */
+    void warmUp(Limiter limiter, LightspeedEComClient client, Supplier<LightspeedEComAsyncClient> asyncClient) {
+        if (!warmUp) {
+            return;
+        }
+        try {
+            limiter.update(client.getAccountRatelimit());
+        } catch (RuntimeException ex) {
+            log.log(Level.WARNING, "Could not load the account rate limit, the limit is learned from the first response.", ex);
+        }
+        if (synchronizePeriod > 0) {
+            limiter.synchronize(asyncClient.get(), synchronizePeriod, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * @return executor of the builder, the default one is created once and shared by the clients of this builder
+     */
+    synchronized Executor executor() {
+        if (executor == null) {
+            executor = Executors.newCachedThreadPool(new ThreadFactoryBuilder().setDaemon(true).setNameFormat("lightspeedecom-async-%d").build());
+        }
+        return executor;
+    }
+
+    /**
+     * @return scheduler of the builder, the default one is created once and shared by the limiters of this builder
+     */
+    synchronized ScheduledExecutorService scheduler() {
+        if (scheduler == null) {
+            scheduler = Limiter.defaultScheduler();
+        }
+        return scheduler;
+    }
+
+    /**
+     * @return metrics of the limiters of this builder
+     */
+    LimiterMetrics metrics() {
+        return metrics;
+    }
+
+    /**
+     * @return object mapper shared by all clients, warmed up when the first client is built
+     */
+    ObjectMapper objectMapper() {
+        return ObjectMappers.shared();
+    }
+
+    /**
+     * @param store store of the bookkeeping of the limiter
+     * @return limiter, null if no limit was set
+     */
+    Limiter createLimiter(LimiterStore store) {
+        if (minRemaining == -1 || maxRequests == -1) {
+            return null;
+        }
+        Limiter limiter = new Limiter(minRemaining, maxRequests, force, burst, scheduler(), store);
+        lanes.forEach((priority, lane) -> limiter.setLane(priority, lane[0], lane[1]));
+        if (retryBudget != -1) {
+            limiter.setRetryBudget(retryBudget);
+        }
+        limiter.setMetrics(metrics);
+        return limiter;
+    }
+
+    /**
+     * Builds a client that reads list responses element by element.
+     */
+    public LightspeedEComStreamingClient buildStreaming() {
+        Limiter limiter = createLimiter(limiterStore != null ? limiterStore : new InMemoryLimiterStore());
+        LightspeedEComStreamingClient.Lists lists = build(LightspeedEComStreamingClient.Lists.class, limiter, apiKey, apiSecret);
+        return new LightspeedEComStreamingClient(lists, objectMapper(), new LightspeedEComErrorDecoder(limiter, objectMapper()), retryer(limiter));
+    }
+
+    /**
+     * @param limiter limiter of the client, may be null
+     * @param apiKey api key of the client
+     * @param apiSecret api secret of the client
+     * @return client that shares the http client, object mapper and codecs with the other clients of this builder
+     */
+    LightspeedEComClient build(Limiter limiter, String apiKey, String apiSecret) {
+        return build(LightspeedEComClient.class, limiter, apiKey, apiSecret);
+    }
+
+    private <T> T build(Class<T> type, Limiter limiter, String apiKey, String apiSecret) {
         Objects.requireNonNull(cluster, "cluster missing");
         Objects.requireNonNull(language, "language missing");
         Objects.requireNonNull(apiKey, "apiKey missing");
         Objects.requireNonNull(apiSecret, "apiSecret missing");
 
-        ObjectMapper om = new ObjectMapper();
-        om.configure(SerializationFeature.WRAP_ROOT_VALUE, true);
-        om.configure(DeserializationFeature.UNWRAP_ROOT_VALUE, true);
-        om.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-        //for using zoneddatetime JsonFormat
-        om.registerModule(new JSR310Module());
-        om.setTimeZone(TimeZone.getTimeZone("UTC"));
-
-        Retryer retryer;
-        if (force) {
-            retryer = new Retryer.Default(0, TimeUnit.MINUTES.toMillis(5), 2);
-        } else {
-            retryer = new Retryer.Default();
-        }
+        ObjectMapper om = objectMapper();
 
         Encoder encoder = new JacksonEncoder(om);
         Decoder decoder = new JacksonDecoder(om);
-        ErrorDecoder errorDecoder;
+        ErrorDecoder errorDecoder = new LightspeedEComErrorDecoder(limiter, om);
 
         List<RequestInterceptor> requestInterceptors = new ArrayList<>();
         requestInterceptors.add(new BasicAuthRequestInterceptor(apiKey, apiSecret));
 
-        if (minRemaining != -1 && maxRequests != -1) {
-            Limiter limiter = new Limiter(minRemaining, maxRequests, force);
+        Client client = httpClient;
+        if (limiter != null) {
             //create for delay requests when limit is reached
             LimitRequestInterceptor limitRequestInterceptor = new LimitRequestInterceptor(limiter);
             requestInterceptors.add(limitRequestInterceptor);
-            decoder = new LimitDecoder(decoder, limiter);//wrap decoder that the limiter can be updated with every response
-            errorDecoder = new LightspeedEComErrorDecoder(limiter);
-        } else {
-            errorDecoder = new LightspeedEComErrorDecoder();
+            client = new LimitClient(httpClient, limiter);//updates the limiter with every response and gives the permit back
         }
 
         String url = createUrl(cluster, language);
-        LightspeedEComClient client = Feign.builder()
+        T target = Feign.builder()
+                .client(client)
                 .requestInterceptors(requestInterceptors)
                 .encoder(encoder)
                 .decoder(decoder)
                 .errorDecoder(errorDecoder)
-                .retryer(retryer)
-                .target(LightspeedEComClient.class, url);
-        return client;
+                .retryer(retryer(limiter))
+                .target(type, url);
+        return target;
+    }
+
+    /**
+     * @param limiter limiter to take the retries from, may be null
+     * @return retryer of the clients of this builder
+     */
+    Retryer retryer(Limiter limiter) {
+        if (force) {
+            return new LightspeedEComRetryer(limiter, TimeUnit.SECONDS.toMillis(1), TimeUnit.MINUTES.toMillis(5), 2);
+        }
+        return new LightspeedEComRetryer(limiter, 100, TimeUnit.SECONDS.toMillis(1), 5);
     }
 
     public static String createUrl(String cluster, String language) {
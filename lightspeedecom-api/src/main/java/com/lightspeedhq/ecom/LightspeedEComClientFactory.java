@@ -0,0 +1,275 @@
+package com.lightspeedhq.ecom;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.io.Closeable;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import lombok.Getter;
+
+/**
+ * Creates the clients of many shops (api keys) from one JVM.<br>
+ * The clients are kept per api key in a bounded registry, a client that is not used for a while is evicted and the
+ * synchronization of its limiter is stopped. A client is built again when the api secret of its key has changed. The
+ * limiter of a shop is kept apart from the registry until {@link #evict(String)}, so an evicted client that is still
+ * used and the client that is built again for the shop share one bookkeeping of the rate limit.<br>
+ * All clients share the http client, object mapper and scheduler of the template builder, the requests of the async
+ * clients run on a shared pool of workers that takes turns between the shops. The metrics of the template are shared
+ * without the state updates, as the shops have their own state (see {@link #getStates()}), give the factory metrics per
+ * shop for those.
+ *
+ * <pre>
+ * LightspeedEComClientFactory factory = new LightspeedEComClientFactory(LightspeedEComClient.builder()
+ *         .cluster(LightspeedEComClient.CLUSTER_EU1).language("nl").limit(0, 300).force(true),
+ *         1000, 1, TimeUnit.HOURS, 32, 4);
+ * CompletableFuture&lt;Order.List&gt; orders = factory.getAsyncClient(apiKey, apiSecret).execute(client -&gt; client.getOrders(filters));
+ * </pre>
+ */
+public class LightspeedEComClientFactory implements Closeable {
+
+    private final LightspeedEComClientBuilder template;
+
+    private final Cache<String, Tenant> tenants;
+
+    /**
+     * limiter per api key, outlives the clients in the registry
+     */
+    private final ConcurrentMap<String, Shop> shops = new ConcurrentHashMap<>();
+
+    private final Function<String, ? extends LimiterMetrics> metrics;
+
+    private final FairExecutor executor;
+
+    /**
+     * @param template builder with the settings of all clients, the authorisation, executor and limiter store of it are
+     * not used
+     * @param maxTenants max number of shops in the registry, the least recently used one is evicted
+     * @param expireAfterAccess time after which a shop that is not used is evicted
+     * @param unit unit of expireAfterAccess
+     * @param threads number of workers that run the requests of the async clients
+     * @param maxThreadsPerTenant max number of workers a shop may use at once
+     */
+    public LightspeedEComClientFactory(LightspeedEComClientBuilder template, int maxTenants, long expireAfterAccess, TimeUnit unit, int threads, int maxThreadsPerTenant) {
+        this(template, maxTenants, expireAfterAccess, unit, threads, maxThreadsPerTenant, apiKey -> new SharedMetrics(template.metrics()));
+    }
+
+    /**
+     * @param template builder with the settings of all clients, the authorisation, executor, limiter store and metrics
+     * of it are not used
+     * @param maxTenants max number of shops in the registry, the least recently used one is evicted
+     * @param expireAfterAccess time after which a shop that is not used is evicted
+     * @param unit unit of expireAfterAccess
+     * @param threads number of workers that run the requests of the async clients
+     * @param maxThreadsPerTenant max number of workers a shop may use at once
+     * @param metrics metrics of the limiter per api key, like a {@link DefaultLimiterMetrics} registered with the shop
+     */
+    public LightspeedEComClientFactory(LightspeedEComClientBuilder template, int maxTenants, long expireAfterAccess, TimeUnit unit, int threads, int maxThreadsPerTenant,
+            Function<String, ? extends LimiterMetrics> metrics) {
+        this.template = Objects.requireNonNull(template);
+        this.metrics = Objects.requireNonNull(metrics);
+        if (maxTenants <= 0) {
+            throw new IllegalArgumentException("maxTenants > 0");
+        }
+        this.executor = new FairExecutor(threads, maxThreadsPerTenant);
+        this.tenants = CacheBuilder.newBuilder()
+                .maximumSize(maxTenants)
+                .expireAfterAccess(expireAfterAccess, unit)
+                .removalListener((RemovalNotification<String, Tenant> notification) -> notification.getValue().stop())
+                .build();
+    }
+
+    /**
+     * @param apiKey api key of the shop
+     * @param apiSecret api secret of the shop
+     * @return client of the shop, blocking calls are not scheduled fairly
+     */
+    public LightspeedEComClient getClient(String apiKey, String apiSecret) {
+        return tenant(apiKey, apiSecret).getAsyncClient().getClient();
+    }
+
+    /**
+     * @param apiKey api key of the shop
+     * @param apiSecret api secret of the shop
+     * @return async client of the shop, its requests run on the shared workers
+     */
+    public LightspeedEComAsyncClient getAsyncClient(String apiKey, String apiSecret) {
+        return tenant(apiKey, apiSecret).getAsyncClient();
+    }
+
+    /**
+     * @return limiter state per api key of the shops in the registry, shops without limit are left out
+     */
+    public Map<String, LimiterState> getStates() {
+        Map<String, LimiterState> states = new LinkedHashMap<>();
+        tenants.asMap().forEach((apiKey, tenant) -> {
+            if (tenant.getLimiter() != null) {
+                states.put(apiKey, tenant.getLimiter().getState());
+            }
+        });
+        return Collections.unmodifiableMap(states);
+    }
+
+    /**
+     * Removes the client and the limiter of a shop, for example when its api key is revoked.
+     *
+     * @param apiKey api key of the shop
+     */
+    public void evict(String apiKey) {
+        tenants.invalidate(apiKey);
+        shops.remove(apiKey);
+    }
+
+    private Tenant tenant(String apiKey, String apiSecret) {
+        Objects.requireNonNull(apiKey, "apiKey missing");
+        Objects.requireNonNull(apiSecret, "apiSecret missing");
+        try {
+            while (true) {
+                Tenant tenant = tenants.get(apiKey, () -> {
+                    Shop shop = shops.computeIfAbsent(apiKey, this::shop);
+                    LightspeedEComClient client = template.build(shop.limiter, apiKey, apiSecret);
+                    LightspeedEComAsyncClient asyncClient = new LightspeedEComAsyncClient(client, shop.limiter, executor.newTenant());
+                    Tenant created = new Tenant(apiSecret, shop, asyncClient);
+                    shop.start(created, template);
+                    return created;
+                });
+                if (tenant.getApiSecret().equals(apiSecret)) {
+                    return tenant;
+                }
+                tenants.asMap().remove(apiKey, tenant);//secret rotated, built again with the new one
+            }
+        } catch (ExecutionException | UncheckedExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new IllegalStateException("Could not create client", ex.getCause());
+        }
+    }
+
+    private Shop shop(String apiKey) {
+        Limiter limiter = template.createLimiter(new InMemoryLimiterStore());
+        if (limiter != null) {
+            limiter.setMetrics(metrics.apply(apiKey));
+        }
+        return new Shop(limiter);
+    }
+
+    /**
+     * Evicts all shops and stops the workers.
+     */
+    @Override
+    public void close() {
+        tenants.invalidateAll();
+        shops.clear();
+        executor.close();
+    }
+
+    /**
+     * Limiter of a shop and the client that synchronizes it.
+     */
+    private static class Shop {
+
+        private final Limiter limiter;
+
+        /**
+         * tenant that started the synchronization of the limiter
+         */
+        private Tenant synchronizing;
+
+        Shop(Limiter limiter) {
+            this.limiter = limiter;
+        }
+
+        synchronized void start(Tenant tenant, LightspeedEComClientBuilder template) {
+            if (limiter != null) {
+                template.warmUp(limiter, tenant.getAsyncClient().getClient(), tenant::getAsyncClient);
+                synchronizing = tenant;
+            }
+        }
+
+        /**
+         * Stops the synchronization if it was started by the tenant, not by the one that replaced it.
+         */
+        synchronized void stop(Tenant tenant) {
+            if (limiter != null && synchronizing == tenant) {
+                limiter.stopSynchronization();
+                synchronizing = null;
+            }
+        }
+    }
+
+    private static class Tenant {
+
+        @Getter
+        private final String apiSecret;
+
+        private final Shop shop;
+
+        @Getter
+        private final LightspeedEComAsyncClient asyncClient;
+
+        Tenant(String apiSecret, Shop shop, LightspeedEComAsyncClient asyncClient) {
+            this.apiSecret = apiSecret;
+            this.shop = shop;
+            this.asyncClient = asyncClient;
+        }
+
+        Limiter getLimiter() {
+            return shop.limiter;
+        }
+
+        void stop() {
+            shop.stop(this);
+        }
+    }
+
+    /**
+     * Metrics shared by the limiters of all shops, without the state of the shop that was updated last.
+     */
+    private static class SharedMetrics implements LimiterMetrics {
+
+        private final LimiterMetrics metrics;
+
+        SharedMetrics(LimiterMetrics metrics) {
+            this.metrics = metrics;
+        }
+
+        @Override
+        public void permitAcquired(Priority priority, long waitNanos) {
+            metrics.permitAcquired(priority, waitNanos);
+        }
+
+        @Override
+        public void permitRefused(Priority priority) {
+            metrics.permitRefused(priority);
+        }
+
+        @Override
+        public void limitReached(long waitMillis) {
+            metrics.limitReached(waitMillis);
+        }
+
+        @Override
+        public void retried() {
+            metrics.retried();
+        }
+
+        @Override
+        public void tooManyRequests() {
+            metrics.tooManyRequests();
+        }
+
+        @Override
+        public void requestSent(String endpoint) {
+            metrics.requestSent(endpoint);
+        }
+    }
+}
@@ -1,7 +1,7 @@
 package com.lightspeedhq.ecom;
 
-import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lightspeedhq.ecom.jackson.ObjectMappers;
 import com.lightspeedhq.ecom.domain.LightspeedEComError;
 import feign.Response;
 import feign.RetryableException;
@@ -19,7 +19,7 @@ public class LightspeedEComErrorDecoder implements ErrorDecoder {
 
     private final ObjectMapper om;
     /**
-     * To update the limit,remaining and rest values
+     * To count the responses with too many requests, the {@link LimitClient} updates it from the headers
      */
     private final Limiter limiter;
 
@@ -28,8 +28,15 @@ public class LightspeedEComErrorDecoder implements ErrorDecoder {
      * @param limiter may be null
      */
     public LightspeedEComErrorDecoder(Limiter limiter) {
-        om = new ObjectMapper();
-        om.configure(DeserializationFeature.UNWRAP_ROOT_VALUE, true);
+        this(limiter, ObjectMappers.shared());
+    }
+
+    /**
+     * @param limiter may be null
+     * @param om mapper of the client, unwrapping root values
+     */
+    public LightspeedEComErrorDecoder(Limiter limiter, ObjectMapper om) {
+        this.om = om;
         this.limiter = limiter;
     }
 
@@ -39,9 +46,6 @@ public class LightspeedEComErrorDecoder implements ErrorDecoder {
 
     @Override
     public Exception decode(String methodKey, Response response) {
-        if (limiter != null) {
-            limiter.update(response);//updates limit-data from headers
-        }
         if (response.status() >= 400 && response.status() < 600) {
             LightspeedEComError error;
             try {
@@ -52,8 +56,11 @@ public class LightspeedEComErrorDecoder implements ErrorDecoder {
             LightspeedEComErrorException exception = new LightspeedEComErrorException(response.reason(), error);
             if (response.status() == 429) {
                 //if to many requests
+                if (limiter != null) {
+                    limiter.getMetrics().tooManyRequests();
+                }
                 String resetString = (String) response.headers().get(LightspeedEComClient.HEADER_RATELIMIT_RESET).toArray()[0];
-                int reset5min = Integer.parseInt(resetString.split("/")[0]);
+                int reset5min = RateLimitHeaders.parseFirst(resetString);
 
                 Date retryAfter = new Date(System.currentTimeMillis() + (reset5min * 1000));
                 log.info("To many requests, wait " + (reset5min * 1000) + "ms");
@@ -0,0 +1,71 @@
+package com.lightspeedhq.ecom;
+
+import feign.RetryableException;
+import feign.Retryer;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retries requests after the time the server asked for, plus decorrelated jitter so throttled threads don't all wake
+ * at the same instant.<br>
+ * With a {@link Limiter} every retry is taken from its retry budget ({@link Limiter#tryRetry()}), when the budget of
+ * the window is used up the exception is thrown instead.
+ */
+public class LightspeedEComRetryer implements Retryer {
+
+    private final Limiter limiter;
+
+    private final long period;
+
+    private final long maxPeriod;
+
+    private final int maxAttempts;
+
+    private int attempt = 1;
+
+    /**
+     * last jitter, grows with every attempt
+     */
+    private long sleep;
+
+    /**
+     * @param limiter limiter to take the retries from, may be null
+     * @param period least time (millis) to wait on top of the time the server asked for
+     * @param maxPeriod max time (millis) to wait before a retry
+     * @param maxAttempts max number of attempts, including the first one
+     */
+    public LightspeedEComRetryer(Limiter limiter, long period, long maxPeriod, int maxAttempts) {
+        this.limiter = limiter;
+        this.period = period;
+        this.maxPeriod = maxPeriod;
+        this.maxAttempts = maxAttempts;
+        this.sleep = period;
+    }
+
+    @Override
+    public void continueOrPropagate(RetryableException e) {
+        if (attempt++ >= maxAttempts) {
+            throw e;
+        }
+        if (limiter != null && !limiter.tryRetry()) {
+            throw e;
+        }
+
+        //decorrelated jitter: random between period and 3 times the last sleep
+        sleep = Math.min(maxPeriod, period + (long) (ThreadLocalRandom.current().nextDouble() * (sleep * 3 - period)));
+        long interval = sleep;
+        if (e.retryAfter() != null) {
+            interval += Math.max(0, e.retryAfter().getTime() - System.currentTimeMillis());
+        }
+        try {
+            Thread.sleep(Math.min(interval, maxPeriod));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+    }
+
+    @Override
+    public Retryer clone() {
+        return new LightspeedEComRetryer(limiter, period, maxPeriod, maxAttempts);
+    }
+}
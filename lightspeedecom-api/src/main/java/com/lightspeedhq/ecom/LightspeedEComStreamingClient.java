@@ -0,0 +1,167 @@
+package com.lightspeedhq.ecom;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lightspeedhq.ecom.jackson.JsonListReader;
+import feign.QueryMap;
+import feign.Request;
+import feign.RequestLine;
+import feign.Response;
+import feign.RetryableException;
+import feign.Retryer;
+import feign.codec.ErrorDecoder;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads list responses element by element instead of building the whole list, which keeps the heap low and hands
+ * out the first element before the whole page is received.<br>
+ * The requests return the raw {@link Response}, its elements are read with a {@link JsonListReader}. Feign hands a
+ * raw response to the caller whatever its status, so responses that are not 2xx are decoded here with the
+ * {@link ErrorDecoder} and retried with the {@link Retryer} of the {@link LightspeedEComClient}.
+ *
+ * <pre>
+ * LightspeedEComStreamingClient streamingClient = LightspeedEComClient.builder()...buildStreaming();
+ * streamingClient.forEach(lists -&gt; lists.getOrders(filters), Order.class, order -&gt; ...);
+ * </pre>
+ */
+public class LightspeedEComStreamingClient {
+
+    /**
+     * The list requests of {@link LightspeedEComClient}, returning the raw response.
+     */
+    public interface Lists {
+
+        @RequestLine("GET /brands.json")
+        Response getBrands(@QueryMap Map<String, Object> filters);
+
+        @RequestLine("GET /categories.json")
+        Response getCategories(@QueryMap Map<String, Object> filters);
+
+        @RequestLine("GET /categories/products.json")
+        Response getCategoriesProducts(@QueryMap Map<String, Object> filters);
+
+        @RequestLine("GET /groups/customers.json")
+        Response getGroupsCustomers(@QueryMap Map<String, Object> filters);
+
+        @RequestLine("GET /customers.json")
+        Response getCustomers(@QueryMap Map<String, Object> filters);
+
+        @RequestLine("GET /orders.json")
+        Response getOrders(@QueryMap Map<String, Object> filters);
+
+        @RequestLine("GET /products.json")
+        Response getProducts(@QueryMap Map<String, Object> filters);
+
+        @RequestLine("GET /quotes.json")
+        Response getQuotes(@QueryMap Map<String, Object> filters);
+
+        @RequestLine("GET /types/attributes.json")
+        Response getTypeAttributes(@QueryMap Map<String, Object> filters);
+
+        @RequestLine("GET /variants.json")
+        Response getVariants(@QueryMap Map<String, Object> filters);
+    }
+
+    private final Lists lists;
+
+    private final ObjectMapper om;
+
+    private final ErrorDecoder errorDecoder;
+
+    private final Retryer retryer;
+
+    /**
+     * @param lists feign client of the list requests
+     * @param om object mapper to read the elements with
+     * @param errorDecoder decoder of the responses that are not 2xx
+     * @param retryer retryer of the {@link RetryableException}s of the error decoder, cloned for every request
+     */
+    public LightspeedEComStreamingClient(Lists lists, ObjectMapper om, ErrorDecoder errorDecoder, Retryer retryer) {
+        this.lists = lists;
+        this.om = om;
+        this.errorDecoder = errorDecoder;
+        this.retryer = retryer;
+    }
+
+    /**
+     * Hands every element of the response to the action while it is read.
+     *
+     * @param request list request, like lists -&gt; lists.getOrders(filters)
+     * @param type type of the elements
+     * @param action action for every element
+     * @return number of elements, to see if this was the last page
+     */
+    public <T> int forEach(Function<Lists, Response> request, Class<T> type, Consumer<? super T> action) {
+        Response response = send(request);
+        try (JsonListReader<T> reader = new JsonListReader<>(om, type, response.body().asInputStream())) {
+            return reader.forEach(action);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not read list of " + type.getName(), ex);
+        } finally {
+            response.close();
+        }
+    }
+
+    /**
+     * @param request list request, like lists -&gt; lists.getOrders(filters)
+     * @param type type of the elements
+     * @return stream of the elements that reads them while it is consumed, close it to close the response
+     */
+    public <T> Stream<T> stream(Function<Lists, Response> request, Class<T> type) {
+        Response response = send(request);
+        JsonListReader<T> reader;
+        try {
+            reader = new JsonListReader<>(om, type, response.body().asInputStream());
+        } catch (IOException ex) {
+            response.close();
+            throw new UncheckedIOException("Could not read list of " + type.getName(), ex);
+        }
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(reader, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(response::close);
+    }
+
+    /**
+     * @return the 2xx response of the request
+     * @throws RuntimeException the exception of the error decoder when the response is not 2xx and not retried
+     */
+    private Response send(Function<Lists, Response> request) {
+        Retryer attempts = retryer.clone();
+        while (true) {
+            Response response = request.apply(lists);
+            if (response.status() >= 200 && response.status() < 300) {
+                return response;
+            }
+            Exception error;
+            try {
+                error = errorDecoder.decode(methodKey(response), response);
+            } catch (RetryableException ex) {
+                error = ex;//thrown for 429
+            } finally {
+                response.close();
+            }
+            if (!(error instanceof RetryableException)) {
+                throw error instanceof RuntimeException ? (RuntimeException) error : new IllegalStateException(error);
+            }
+            attempts.continueOrPropagate((RetryableException) error);
+        }
+    }
+
+    private static String methodKey(Response response) {
+        Request request = response.request();
+        return request != null ? "Lists " + request.method() + " " + request.url() : "Lists";
+    }
+
+    /**
+     * @return feign client of the list requests
+     */
+    public Lists getLists() {
+        return lists;
+    }
+}
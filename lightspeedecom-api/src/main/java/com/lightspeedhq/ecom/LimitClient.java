@@ -0,0 +1,49 @@
+package com.lightspeedhq.ecom;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import java.io.IOException;
+import java.util.logging.Level;
+import lombok.extern.java.Log;
+
+/**
+ * Updates the {@link Limiter} from the headers of every response and gives the permit back, also when the request
+ * fails without a response.<br>
+ * Every request passes the http client, also the ones no decoder sees (void methods, raw responses and errors), so
+ * the permit taken by the {@link LimitRequestInterceptor} is always given back here.
+ */
+@Log
+public class LimitClient implements Client {
+
+    private final Client client;
+
+    private final Limiter limiter;
+
+    /**
+     * @param client http client that sends the requests
+     * @param limiter limiter of the client
+     */
+    public LimitClient(Client client, Limiter limiter) {
+        this.client = client;
+        this.limiter = limiter;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        Response response;
+        try {
+            response = client.execute(request, options);
+        } catch (IOException | RuntimeException | Error ex) {
+            limiter.release();
+            throw ex;
+        }
+        try {
+            limiter.update(response);
+        } catch (RuntimeException ex) {
+            log.log(Level.WARNING, "Could not update the limiter from the response.", ex);
+            limiter.release();
+        }
+        return response;
+    }
+}
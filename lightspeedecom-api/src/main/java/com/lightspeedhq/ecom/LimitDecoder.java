@@ -11,7 +11,10 @@ import java.lang.reflect.Type;
  * Decodes {@link LightspeedEComClient#HEADER_RATELIMIT_LIMIT} and updates the {@link Limiter}
  *
  * @author stevensnoeijen
+ * @deprecated only sees the responses that are decoded, so the permits of void requests and errors are not given
+ * back, use {@link LimitClient}
  */
+@Deprecated
 public class LimitDecoder implements Decoder {
 
     private Decoder responseDecoder;
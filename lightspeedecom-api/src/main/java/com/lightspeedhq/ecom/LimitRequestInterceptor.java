@@ -2,6 +2,7 @@ package com.lightspeedhq.ecom;
 
 import feign.RequestInterceptor;
 import feign.RequestTemplate;
+import java.util.regex.Pattern;
 
 /**
  *
@@ -9,6 +10,11 @@ import feign.RequestTemplate;
  */
 public class LimitRequestInterceptor implements RequestInterceptor {
 
+    /**
+     * numeric path segments, like the 123 of /orders/123.json
+     */
+    private static final Pattern ID = Pattern.compile("/\\d+(?=[/.]|$)");
+
     private Limiter limiter;
 
     public LimitRequestInterceptor(Limiter limiter) {
@@ -18,6 +24,19 @@ public class LimitRequestInterceptor implements RequestInterceptor {
     @Override
     public void apply(RequestTemplate template) {
         limiter.waitOrContinue();
+        LimiterMetrics metrics = limiter.getMetrics();
+        if (metrics != LimiterMetrics.NONE) {
+            metrics.requestSent(endpoint(template.method(), template.url()));
+        }
+    }
+
+    /**
+     * @return method and path with the ids replaced by {id}, like GET /orders/{id}.json
+     */
+    static String endpoint(String method, String url) {
+        int query = url.indexOf('?');
+        String path = query == -1 ? url : url.substring(0, query);
+        return method + " " + ID.matcher(path).replaceAll("/{id}");
     }
 
 }
@@ -1,55 +1,113 @@
 package com.lightspeedhq.ecom;
 
 import com.google.common.collect.Iterables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.lightspeedhq.ecom.domain.AccountRatelimit;
 import feign.Response;
-import java.text.DateFormat;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.time.Instant;
-import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
-import java.util.Date;
-import java.util.TimeZone;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
 import java.util.logging.Level;
+import lombok.Getter;
 import lombok.extern.java.Log;
 
 /**
+ * Keeps track of the rate limit of the api key and hands out permits for requests.<br>
+ * The bookkeeping is kept in an immutable {@link LimiterState} that is swapped with compare-and-set,
+ * so the limiter can be shared by any number of threads without locking. The state is held by a {@link LimiterStore},
+ * which can share it with limiters of other processes.<br>
+ * Permits are spread evenly over the time left in the 5 minute, 1 hour and 1 day windows (whichever is the
+ * tightest), allowing a burst of {@link #DEFAULT_BURST} permits, so a long running job can't burn the budget of
+ * the day within the first hours.<br>
+ * Callers that have to wait are queued per {@link Priority}, the queues are dispatched from a scheduler when a permit
+ * is due. Use {@link #acquireAsync(Priority)} to wait without holding a thread.<br>
+ * Each priority has a lane with a reserve and a weight. A lane only gets permits while more than its reserve is left,
+ * so lower classes can keep requests for the higher ones. While several lanes are waiting, they get permits in
+ * proportion to their weight (stride scheduling). A request never waits behind queued requests of a lower priority.
  *
  * @author stevensnoeijen
  */
 @Log
 public class Limiter {
 
-    private int limit5min;
-    private int limit1h;
-    private int limit1d;
+    /**
+     * Default number of permits that may be handed out at once before permits are spread.
+     */
+    public static final int DEFAULT_BURST = 10;
+
+    private final LimiterStore store;
+
+    private final LongSupplier clock;
+
+    private final HttpDateParser dateParser = new HttpDateParser();
+
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * callers waiting for a permit per priority, each in order of arrival
+     */
+    private final Map<Priority, Lane> lanes = new EnumMap<>(Priority.class);
+
+    /**
+     * pass of the lane that got the last permit, lanes that were idle continue from here
+     */
+    private long virtualTime;
 
-    private int remaining5min;
-    private int remaining1h;
-    private int remaining1d;
+    private final AtomicBoolean dispatching = new AtomicBoolean();
 
-    private int reset5min;
-    private int reset1h;
-    private int reset1d;
+    private final AtomicBoolean dispatchScheduled = new AtomicBoolean();
 
-    private long lastUpdate;
+    /**
+     * scheduled synchronization with {@link LightspeedEComClient#getAccountRatelimit()}, null if none
+     */
+    private volatile ScheduledFuture<?> synchronization;
+
+    /**
+     * set when the calling thread already holds a permit, acquired by {@link #runWithPermit(Supplier)}
+     */
+    private final ThreadLocal<Boolean> permitHeld = new ThreadLocal<>();
 
     /**
      * number of requests that need to be remaining
      */
-    private int minRemaining;
+    private final int minRemaining;
 
     /**
      * number of requests that may be used by this client
      */
-    private int maxRequests;
+    private final int maxRequests;
 
     /**
      * to force request to be executed
      */
-    private boolean force;
+    private final boolean force;
+
+    /**
+     * number of permits that may be handed out at once
+     */
+    private final int burst;
+
+    /**
+     * number of retries that may be done within a 5 minute window
+     */
+    private volatile int retryBudget;
 
-    private int doneRequests = 0;
+    @Getter
+    private volatile LimiterMetrics metrics = LimiterMetrics.NONE;
 
     /**
      * @param minRemaining min number of requests that need not to be used (for more important usage?), by default 0
@@ -57,99 +115,557 @@ public class Limiter {
      * @param force to force request, if true request will be executed (thread will sleep), if false it will throw an exception
      */
     public Limiter(int minRemaining, int maxRequests, boolean force) {
+        this(minRemaining, maxRequests, force, DEFAULT_BURST);
+    }
+
+    /**
+     * @param minRemaining min number of requests that need not to be used (for more important usage?), by default 0
+     * @param maxRequests max number of requests that may be used by this client within a reset
+     * @param force to force request, if true request will be executed (thread will sleep), if false it will throw an exception
+     * @param burst number of permits that may be handed out at once, before the permits are spread over the windows
+     */
+    public Limiter(int minRemaining, int maxRequests, boolean force, int burst) {
+        this(minRemaining, maxRequests, force, burst, defaultScheduler());
+    }
+
+    /**
+     * @param minRemaining min number of requests that need not to be used (for more important usage?), by default 0
+     * @param maxRequests max number of requests that may be used by this client within a reset
+     * @param force to force request, if true request will be executed (thread will sleep), if false it will throw an exception
+     * @param burst number of permits that may be handed out at once, before the permits are spread over the windows
+     * @param scheduler scheduler that hands out the permits to waiting callers, can be shared between limiters
+     */
+    public Limiter(int minRemaining, int maxRequests, boolean force, int burst, ScheduledExecutorService scheduler) {
+        this(minRemaining, maxRequests, force, burst, scheduler, new InMemoryLimiterStore());
+    }
+
+    /**
+     * @param minRemaining min number of requests that need not to be used (for more important usage?), by default 0
+     * @param maxRequests max number of requests that may be used by this client within a reset
+     * @param force to force request, if true request will be executed (thread will sleep), if false it will throw an exception
+     * @param burst number of permits that may be handed out at once, before the permits are spread over the windows
+     * @param scheduler scheduler that hands out the permits to waiting callers, can be shared between limiters
+     * @param store store of the bookkeeping, {@link MappedFileLimiterStore} to share it between processes
+     */
+    public Limiter(int minRemaining, int maxRequests, boolean force, int burst, ScheduledExecutorService scheduler, LimiterStore store) {
+        this(minRemaining, maxRequests, force, burst, scheduler, store, System::currentTimeMillis);
+    }
+
+    Limiter(int minRemaining, int maxRequests, boolean force, int burst, ScheduledExecutorService scheduler, LimiterStore store, LongSupplier clock) {
         this.minRemaining = minRemaining;
         this.maxRequests = maxRequests;
         this.force = force;
+        this.burst = burst;
+        this.scheduler = scheduler;
+        this.store = store;
+        this.clock = clock;
+        this.retryBudget = Math.max(1, maxRequests / 10);
+        for (Priority priority : Priority.values()) {
+            lanes.put(priority, new Lane(0, priority.getDefaultWeight()));
+        }
+    }
+
+    /**
+     * Sets the reserve and weight of a priority, by default the reserve is 0 and the weight is
+     * {@link Priority#getDefaultWeight()}. Set the lanes before the limiter is used.
+     *
+     * @param priority priority to set the lane of
+     * @param reserve requests that must be left for higher priorities, on top of minRemaining
+     * @param weight share of the permits while several priorities are waiting
+     */
+    public void setLane(Priority priority, int reserve, int weight) {
+        if (reserve < 0) {
+            throw new IllegalArgumentException("reserve >= 0");
+        }
+        if (weight <= 0) {
+            throw new IllegalArgumentException("weight > 0");
+        }
+        lanes.put(priority, new Lane(reserve, weight));
+    }
+
+    /**
+     * @param retryBudget number of retries that may be done within a 5 minute window by all users of the store, by
+     * default a tenth of maxRequests
+     */
+    public void setRetryBudget(int retryBudget) {
+        if (retryBudget < 0) {
+            throw new IllegalArgumentException("retryBudget >= 0");
+        }
+        this.retryBudget = retryBudget;
+    }
+
+    /**
+     * @param metrics receiver of the events of this limiter
+     */
+    public void setMetrics(LimiterMetrics metrics) {
+        this.metrics = Objects.requireNonNull(metrics);
+    }
+
+    /**
+     * Takes a retry from the budget of the current window. The retried request itself takes a permit like any other.
+     *
+     * @return true if the request may be retried, false if the budget is used up
+     */
+    public boolean tryRetry() {
+        long now = clock.getAsLong();
+        LimiterState current, next;
+        do {
+            current = store.get();
+            LimiterState rolled = current.roll(now);
+            if (rolled.getRetries() >= retryBudget) {
+                return false;
+            }
+            next = rolled.retry();
+        } while (!store.compareAndSet(current, next));
+        metrics.retried();
+        return true;
+    }
+
+    /**
+     * @return current snapshot of the bookkeeping
+     */
+    public LimiterState getState() {
+        return store.get();
     }
 
+    /**
+     * Takes the numbers of the rate limit headers and gives back the permit of the request, called by the
+     * {@link LimitClient} for every response.
+     *
+     * @param response response of a request that took a permit
+     */
     public void update(Response response) {
-        boolean isError = response.status() >= 400 && response.status() < 600;
-
-        String limitString = Iterables.get(response.headers().get(LightspeedEComClient.HEADER_RATELIMIT_LIMIT), 0);
-        String remainingString = Iterables.get(response.headers().get(LightspeedEComClient.HEADER_RATELIMIT_REMAINING), 0);
-        String resetString = Iterables.get(response.headers().get(LightspeedEComClient.HEADER_RATELIMIT_RESET), 0);
-
-        //limit
-        String[] limitStrings = limitString.split("/");
-        this.limit5min = Integer.parseInt(limitStrings[0]);
-        this.limit1h = Integer.parseInt(limitStrings[1]);
-        this.limit1d = Integer.parseInt(limitStrings[2]);
-
-        //remaining
-        String[] remainingStrings = remainingString.split("/");
-        this.remaining5min = Integer.parseInt(remainingStrings[0]);
-        this.remaining1h = Integer.parseInt(remainingStrings[1]);
-        this.remaining1d = Integer.parseInt(remainingStrings[2]);
-
-        //reset
-        String[] resetStrings = resetString.split("/");
-        this.reset5min = Integer.parseInt(resetStrings[0]);//5min
-        this.reset1h = Integer.parseInt(resetStrings[1]);//1h
-        this.reset1d = Integer.parseInt(resetStrings[2]);//1d
+        String limitString = header(response, LightspeedEComClient.HEADER_RATELIMIT_LIMIT);
+        String remainingString = header(response, LightspeedEComClient.HEADER_RATELIMIT_REMAINING);
+        String resetString = header(response, LightspeedEComClient.HEADER_RATELIMIT_RESET);
+        if (limitString == null || remainingString == null || resetString == null) {
+            //no limit-data, only give back the permit
+            release();
+            return;
+        }
+
+        //limit, remaining and reset of 5min/1h/1d, parsed into locals so a response allocates no array
+        int limit5min = RateLimitHeaders.parseNumber(limitString, 0);
+        int limit1h = RateLimitHeaders.parseNumber(limitString, 1);
+        int limit1d = RateLimitHeaders.parseNumber(limitString, 2);
+        int remaining5min = RateLimitHeaders.parseNumber(remainingString, 0);
+        int remaining1h = RateLimitHeaders.parseNumber(remainingString, 1);
+        int remaining1d = RateLimitHeaders.parseNumber(remainingString, 2);
+        int reset5min = RateLimitHeaders.parseNumber(resetString, 0);
+        int reset1h = RateLimitHeaders.parseNumber(resetString, 1);
+        int reset1d = RateLimitHeaders.parseNumber(resetString, 2);
 
         //lastUpdate
-        String dateString = Iterables.get(response.headers().get("Date"), 0);
-        DateFormat format = new SimpleDateFormat("EEE, d MMM yyyy HH:mm:ss z");
-        Date date;
+        String dateString = header(response, "Date");
+        long date;
         try {
-            date = format.parse(dateString);
-        } catch (ParseException ex) {
+            date = dateString != null ? dateParser.parse(dateString) : clock.getAsLong();
+        } catch (DateTimeParseException ex) {
             log.log(Level.WARNING, "Could not parse Date, using current date instead.", ex);
-            date = new Date();
+            date = clock.getAsLong();
         }
 
-        //check lastUpdate
-        if (lastUpdate != 0) {
-            //check if lastUpdate is 5min ago
-            LocalDateTime resetTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(this.lastUpdate), TimeZone.getDefault().toZoneId());
-            resetTime = resetTime.plus((int) 5 - (resetTime.getMinute() % 5), ChronoUnit.MINUTES).withSecond(0).withNano(0);//get reset time (is the next 5min)
+        long now = clock.getAsLong();
+        LimiterState current, next;
+        do {
+            current = store.get();
+            next = current.roll(now).update(limit5min, limit1h, limit1d, remaining5min, remaining1h, remaining1d, reset5min, reset1h, reset1d, date);
+        } while (!store.compareAndSet(current, next));
+        metrics.stateUpdated(next);
+        wakeUp();
+    }
 
-            //after reset time
-            if (LocalDateTime.now().isAfter(resetTime)) {
-                this.doneRequests = 0;//reset to 0
+    /**
+     * Replaces the numbers with the ones of the account, to know the limit before the first response and to correct
+     * drift.
+     *
+     * @param ratelimit result of {@link LightspeedEComClient#getAccountRatelimit()}
+     */
+    public void update(AccountRatelimit ratelimit) {
+        AccountRatelimit.Ratelimit[] windows = {ratelimit.getLimit5Min(), ratelimit.getLimitHour(), ratelimit.getLimitDay()};
+        int[] values = new int[9];
+        for (int i = 0; i < windows.length; i++) {
+            if (windows[i] == null) {
+                log.warning("Account rate limit is incomplete, ignored.");
+                return;
             }
+            values[i] = windows[i].getLimit();
+            values[3 + i] = windows[i].getRemaining();
+            values[6 + i] = windows[i].getReset();
         }
 
-        if (!isError) {
-            this.lastUpdate = date.getTime();
-            this.doneRequests++;
+        long now = clock.getAsLong();
+        LimiterState current, next;
+        do {
+            current = store.get();
+            next = current.roll(now).synchronize(values, now);
+        } while (!store.compareAndSet(current, next));
+        metrics.stateUpdated(next);
+        wakeUp();
+    }
+
+    /**
+     * Synchronizes with the account rate limit every period, replaces a previous synchronization.
+     *
+     * @param client async client of this limiter
+     * @param period time between synchronizations
+     * @param unit unit of period
+     */
+    public void synchronize(LightspeedEComAsyncClient client, long period, TimeUnit unit) {
+        Runnable synchronize = () -> client.execute(Priority.INTERACTIVE, LightspeedEComClient::getAccountRatelimit)
+                .whenComplete((ratelimit, ex) -> {
+                    if (ex != null) {
+                        log.log(Level.WARNING, "Could not synchronize with account rate limit.", ex);
+                    } else {
+                        update(ratelimit);
+                    }
+                });
+        stopSynchronization();
+        synchronization = scheduler.scheduleWithFixedDelay(synchronize, period, period, unit);
+    }
+
+    /**
+     * Stops the synchronization started with {@link #synchronize(LightspeedEComAsyncClient, long, TimeUnit)}.
+     */
+    public void stopSynchronization() {
+        ScheduledFuture<?> previous = synchronization;
+        if (previous != null) {
+            previous.cancel(false);
         }
     }
 
     /**
-     * Checks if a request can be made
+     * Gives back the permit of a request that failed, was not sent or did not return limit-data.
+     */
+    public void release() {
+        LimiterState current, next;
+        do {
+            current = store.get();
+            next = current.release();
+        } while (!store.compareAndSet(current, next));
+        wakeUp();
+    }
+
+    /**
+     * Checks if a request can be made, reserves a permit when it can.<br>
+     * The request gets the priority of {@link Priority#current()}.
+     *
+     * @throws LimitException if the limit is reached and the limiter is not forced
+     * @throws IllegalStateException if interrupted while waiting for a permit, the interrupt flag is set again
      */
     public void waitOrContinue() {
-        if (this.lastUpdate == 0) {//first time
+        if (permitHeld.get() != null) {
+            //permit was acquired before the request was started
+            permitHeld.remove();
             return;//continue
         }
-        //check if lastUpdate is 5min ago
-        Date resetTime = new Date(this.lastUpdate + (reset5min * 1000));
-        Date now = new Date();
-        //after reset time
-        if (now.after(resetTime)) {
+        Priority priority = Priority.current();
+        if (!this.force) {
+            if (isQueuedAtOrAbove(priority) || tryReserve(priority) > 0) {
+                metrics.permitRefused(priority);
+                throw new LimitException();
+            }
+            metrics.permitAcquired(priority, 0);
             return;//continue
         }
-        if (this.force) {
-            //check minRemaining and maxRequests
-            if (this.minRemaining > this.remaining5min - 1
-                    || (this.doneRequests + 1) > this.maxRequests) {
-                //remaining5min is to low and/or maxRequests is reached
-                //calculate time to wait
-                long wait = resetTime.getTime() - now.getTime() + 1000;//1sec slack
-                try {
-                    log.info("limit reached, wait for " + wait + "ms");
-                    Thread.sleep(wait);
-                    log.info("continue after " + wait + "ms sleep");
-                } catch (InterruptedException ignored) {
-                    Thread.currentThread().interrupt();
+        CompletableFuture<Void> permit = acquireAsync(priority);
+        try {
+            permit.get();
+        } catch (InterruptedException ex) {
+            if (!permit.cancel(false) && !permit.isCompletedExceptionally()) {
+                release();//granted in the meantime
+            }
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a permit", ex);
+        } catch (ExecutionException ex) {
+            throw (RuntimeException) ex.getCause();
+        }
+    }
+
+    /**
+     * Acquires a permit with {@link Priority#NORMAL} without blocking the calling thread.
+     *
+     * @see #acquireAsync(Priority)
+     */
+    public CompletableFuture<Void> acquireAsync() {
+        return acquireAsync(Priority.NORMAL);
+    }
+
+    /**
+     * Acquires a permit without blocking the calling thread.<br>
+     * When no permit is available the caller is queued, the returned future is completed from the scheduler as soon
+     * as a permit is due. A cancelled future gives its permit back.
+     *
+     * @param priority priority of the request
+     * @return future that completes when the permit is acquired, fails with {@link LimitException} if the limit is
+     * reached and the limiter is not forced
+     */
+    public CompletableFuture<Void> acquireAsync(Priority priority) {
+        CompletableFuture<Void> permit = new CompletableFuture<>();
+        if (!isQueuedAtOrAbove(priority) && tryReserve(priority) == 0) {
+            metrics.permitAcquired(priority, 0);
+            permit.complete(null);
+            return permit;
+        }
+        if (!this.force) {
+            metrics.permitRefused(priority);
+            permit.completeExceptionally(new LimitException());
+            return permit;
+        }
+        long queued = System.nanoTime();
+        permit.thenRun(() -> metrics.permitAcquired(priority, System.nanoTime() - queued));
+        lanes.get(priority).waiters.add(permit);
+        dispatch();
+        return permit;
+    }
+
+    /**
+     * Runs the request on the calling thread with a permit that was acquired with {@link #acquireAsync()}, so the
+     * {@link LimitRequestInterceptor} will not acquire another one. The permit is given back when the request did not
+     * use it.
+     */
+    public <T> T runWithPermit(Supplier<T> request) {
+        permitHeld.set(Boolean.TRUE);
+        try {
+            return request.get();
+        } finally {
+            if (permitHeld.get() != null) {
+                permitHeld.remove();
+                release();//no request was sent
+            }
+        }
+    }
+
+    /**
+     * Hands out permits to the waiting callers, schedules itself again when the next permit is not due yet.<br>
+     * Of the lanes with waiters, the one with the lowest pass goes first (the highest priority on a tie). A lane that
+     * is held back by its reserve lets the next lane try.
+     */
+    private void dispatch() {
+        if (!dispatching.compareAndSet(false, true)) {
+            return;//the running dispatch will pick up the new waiters
+        }
+        long wait = 0;
+        try {
+            boolean granted = true;
+            while (granted) {
+                granted = false;
+                wait = Long.MAX_VALUE;
+                for (Lane lane : lanesByPass()) {
+                    long laneWait = tryReserve(lane.reserve);
+                    if (laneWait == 0) {
+                        CompletableFuture<Void> waiter = lane.waiters.poll();
+                        if (waiter == null || !waiter.complete(null)) {
+                            release();//cancelled in the meantime
+                        }
+                        virtualTime = lane.pass;
+                        lane.pass += Lane.STRIDE / lane.weight;
+                        granted = true;
+                        break;
+                    }
+                    wait = Math.min(wait, laneWait);
+                }
+            }
+            if (wait == Long.MAX_VALUE) {
+                wait = 0;//no waiters left
+            }
+        } finally {
+            dispatching.set(false);
+        }
+        if (wait > 0) {
+            if (wait > 1000) {
+                log.info("limit reached, wait for " + wait + "ms");
+            }
+            if (dispatchScheduled.compareAndSet(false, true)) {
+                metrics.limitReached(wait);
+                scheduler.schedule(() -> {
+                    dispatchScheduled.set(false);
+                    dispatch();
+                }, wait, TimeUnit.MILLISECONDS);
+            }
+        } else if (hasWaiters()) {
+            dispatch();//waiter was added while finishing
+        }
+    }
+
+    /**
+     * @return lanes that have waiters, in the order they should get a permit
+     */
+    private Lane[] lanesByPass() {
+        Lane[] waiting = new Lane[lanes.size()];
+        int count = 0;
+        for (Lane lane : lanes.values()) {//in order of priority
+            CompletableFuture<Void> head;
+            while ((head = lane.waiters.peek()) != null && head.isDone()) {
+                lane.waiters.remove(head);//cancelled
+            }
+            if (head == null) {
+                continue;
+            }
+            lane.pass = Math.max(lane.pass, virtualTime);//no credit for the time it was idle
+            int index = count++;
+            while (index > 0 && waiting[index - 1].pass > lane.pass) {
+                waiting[index] = waiting[index - 1];
+                index--;
+            }
+            waiting[index] = lane;
+        }
+        return Arrays.copyOf(waiting, count);
+    }
+
+    private boolean isQueuedAtOrAbove(Priority priority) {
+        for (Map.Entry<Priority, Lane> entry : lanes.entrySet()) {
+            if (entry.getKey().compareTo(priority) > 0) {
+                break;
+            }
+            if (!entry.getValue().waiters.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean hasWaiters() {
+        for (Lane lane : lanes.values()) {
+            if (!lane.waiters.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Lets the waiting callers try again, the numbers have changed.
+     */
+    private void wakeUp() {
+        if (hasWaiters()) {
+            scheduler.execute(this::dispatch);
+        }
+    }
+
+    /**
+     * Reserves a permit with {@link Priority#NORMAL} if one is available now.
+     *
+     * @return 0 if a permit is reserved, otherwise the time in millis to wait before trying again
+     */
+    public long tryReserve() {
+        return tryReserve(Priority.NORMAL);
+    }
+
+    /**
+     * Reserves a permit if one is available now, without looking at the queued requests.
+     *
+     * @param priority priority of the request
+     * @return 0 if a permit is reserved, otherwise the time in millis to wait before trying again
+     */
+    public long tryReserve(Priority priority) {
+        return tryReserve(lanes.get(priority).reserve);
+    }
+
+    /**
+     * @param reserve requests that must be left on top of minRemaining
+     * @return 0 if a permit is reserved, otherwise the time in millis to wait before trying again
+     */
+    private long tryReserve(int reserve) {
+        while (true) {
+            long now = clock.getAsLong();
+            LimiterState current = store.get();
+            LimiterState rolled = current.roll(now);
+            if (rolled.isEmpty()) {//first time
+                if (store.compareAndSet(current, rolled.reserve(0))) {
+                    return 0;
                 }
-            } else {
-                return;//continue
+                continue;
+            }
+
+            //requests left per window, keeping minRemaining and maxRequests
+            int available5min = Math.min(rolled.getAvailable5min(), this.maxRequests - rolled.getDoneRequests() + this.minRemaining) - this.minRemaining;
+            int available1h = rolled.getAvailable1h(now) - this.minRemaining;
+            int available1d = rolled.getAvailable1d(now) - this.minRemaining;
+
+            //remaining5min is to low and/or maxRequests is reached, wait till the window resets
+            long wait = 0;
+            if (available5min <= reserve) {
+                wait = Math.max(wait, rolled.getWindowEnd() - now + 1000);//1sec slack
+            }
+            if (available1h <= reserve) {
+                wait = Math.max(wait, rolled.getWindowEnd1h() - now + 1000);
             }
-        } else {
-            throw new LimitException();
+            if (available1d <= reserve) {
+                wait = Math.max(wait, rolled.getWindowEnd1d() - now + 1000);
+            }
+            if (wait > 0) {
+                return wait;
+            }
+
+            //spread the requests left over the time left, the tightest window decides
+            long interval = Math.max(interval(rolled.getWindowEnd() - now, available5min),
+                    Math.max(interval(rolled.getWindowEnd1h() - now, available1h),
+                            interval(rolled.getWindowEnd1d() - now, available1d)));
+            long due = Math.max(rolled.getNextPermit(), now);
+            long early = due - now - interval * (this.burst - 1);
+            if (early > 0) {
+                return early;
+            }
+            if (store.compareAndSet(current, rolled.reserve(due + interval))) {
+                return 0;
+            }
+        }
+    }
+
+    private static long interval(long timeLeft, int available) {
+        return Math.max(0, timeLeft) / available;
+    }
+
+    private static String header(Response response, String name) {
+        Collection<String> values = response.headers().get(name);
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        return Iterables.get(values, 0);
+    }
+
+    /**
+     * Waiting callers of one priority.
+     */
+    private static class Lane {
+
+        /**
+         * pass added for a permit is STRIDE / weight
+         */
+        private static final long STRIDE = 1 << 20;
+
+        private final Queue<CompletableFuture<Void>> waiters = new ConcurrentLinkedQueue<>();
+
+        private final int reserve;
+
+        private final int weight;
+
+        /**
+         * virtual time of the lane, only changed by dispatch
+         */
+        private long pass;
+
+        private Lane(int reserve, int weight) {
+            this.reserve = reserve;
+            this.weight = weight;
         }
     }
 
+    /**
+     * @return daemon scheduler shared by the limiters that were not given one, must not be shut down
+     */
+    public static ScheduledExecutorService defaultScheduler() {
+        return DefaultScheduler.INSTANCE;
+    }
+
+    /**
+     * Scheduler used by all limiters that were not given one.
+     */
+    private static class DefaultScheduler {
+
+        private static final ScheduledExecutorService INSTANCE = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("lightspeedecom-limiter").build());
+    }
+
 }
@@ -0,0 +1,62 @@
+package com.lightspeedhq.ecom;
+
+/**
+ * Receives the events of a {@link Limiter}, implement it to feed a metrics registry or use
+ * {@link DefaultLimiterMetrics} for counters that are exposed through JMX.<br>
+ * The methods are called on the request threads and the scheduler, they must be thread-safe and return fast.
+ */
+public interface LimiterMetrics {
+
+    /**
+     * Ignores all events.
+     */
+    LimiterMetrics NONE = new LimiterMetrics() {
+    };
+
+    /**
+     * @param priority priority of the request
+     * @param waitNanos time the request waited for the permit, 0 if it didn't wait
+     */
+    default void permitAcquired(Priority priority, long waitNanos) {
+    }
+
+    /**
+     * The limit is reached and the limiter is not forced, a {@link LimitException} is thrown.
+     *
+     * @param priority priority of the request
+     */
+    default void permitRefused(Priority priority) {
+    }
+
+    /**
+     * No permit is available for the waiting requests, the limiter sleeps until the next one is due.
+     *
+     * @param waitMillis time until the next permit is due
+     */
+    default void limitReached(long waitMillis) {
+    }
+
+    /**
+     * A request is retried, taken from the retry budget.
+     */
+    default void retried() {
+    }
+
+    /**
+     * The server answered 429 Too Many Requests.
+     */
+    default void tooManyRequests() {
+    }
+
+    /**
+     * @param endpoint method and path of the request with the ids replaced by {id}, like GET /orders/{id}.json
+     */
+    default void requestSent(String endpoint) {
+    }
+
+    /**
+     * @param state bookkeeping after new numbers of the server were applied
+     */
+    default void stateUpdated(LimiterState state) {
+    }
+}
@@ -0,0 +1,64 @@
+package com.lightspeedhq.ecom;
+
+import java.util.Map;
+
+/**
+ * JMX view of {@link DefaultLimiterMetrics}.
+ */
+public interface LimiterMetricsMXBean {
+
+    long getPermits();
+
+    long getPermitsRefused();
+
+    /**
+     * @return number of permits that had to wait
+     */
+    long getPermitsWaited();
+
+    /**
+     * @return number of times the limiter slept because no permit was available
+     */
+    long getLimitReached();
+
+    long getRetries();
+
+    long getTooManyRequests();
+
+    int getLimit5min();
+
+    int getLimit1h();
+
+    int getLimit1d();
+
+    int getRemaining5min();
+
+    int getRemaining1h();
+
+    int getRemaining1d();
+
+    /**
+     * @return part of the 5 minute limit that is used, 0 to 1
+     */
+    double getUtilisation5min();
+
+    double getUtilisation1h();
+
+    double getUtilisation1d();
+
+    double getWaitTimeMeanMillis();
+
+    long getWaitTimeMaxMillis();
+
+    /**
+     * @return number of permits per wait time, bucket i counts the waits up to 2^i millis (bucket 0 includes no wait)
+     */
+    long[] getWaitTimeHistogram();
+
+    Map<String, Long> getRequestsPerEndpoint();
+
+    /**
+     * Sets all counters to 0.
+     */
+    void reset();
+}
@@ -0,0 +1,212 @@
+package com.lightspeedhq.ecom;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * Immutable snapshot of the rate-limit bookkeeping of a {@link Limiter}.<br>
+ * Every change creates a new snapshot, which the {@link Limiter} swaps in atomically through its {@link LimiterStore}.
+ * Snapshots with the same numbers are equal.
+ */
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+@EqualsAndHashCode
+public final class LimiterState {
+
+    /**
+     * State before any response was received.
+     */
+    public static final LimiterState EMPTY = new LimiterState(0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0);
+
+    @Getter
+    private final int limit5min;
+    @Getter
+    private final int limit1h;
+    @Getter
+    private final int limit1d;
+
+    @Getter
+    private final int remaining5min;
+    @Getter
+    private final int remaining1h;
+    @Getter
+    private final int remaining1d;
+
+    @Getter
+    private final int reset5min;
+    @Getter
+    private final int reset1h;
+    @Getter
+    private final int reset1d;
+
+    /**
+     * Server time (millis) of the last response, 0 if none was received yet.
+     */
+    @Getter
+    private final long lastUpdate;
+
+    /**
+     * Time (millis) at which the current 5 minute window ends.
+     */
+    @Getter
+    private final long windowEnd;
+
+    /**
+     * Number of permits handed out within the current 5 minute window.
+     */
+    @Getter
+    private final int doneRequests;
+
+    /**
+     * Number of permits handed out for which no response was received yet.
+     */
+    @Getter
+    private final int inFlight;
+
+    /**
+     * Number of retries within the current 5 minute window.
+     */
+    @Getter
+    private final int retries;
+
+    /**
+     * Time (millis) at which the next permit is due when requests are spread evenly, 0 if none is scheduled.
+     */
+    @Getter
+    private final long nextPermit;
+
+    /**
+     * @return true if no response was received yet
+     */
+    public boolean isEmpty() {
+        return lastUpdate == 0;
+    }
+
+    /**
+     * @param now current time in millis
+     * @return true if the 5 minute window of this state has passed
+     */
+    public boolean isExpired(long now) {
+        return now >= windowEnd;
+    }
+
+    /**
+     * Requests the server still allows within the 5 minute window, minus the ones that are in flight.
+     */
+    public int getAvailable5min() {
+        return remaining5min - inFlight;
+    }
+
+    /**
+     * Requests the server still allows within the 1 hour window, minus the ones that are in flight.
+     *
+     * @param now current time in millis
+     */
+    public int getAvailable1h(long now) {
+        return (now >= getWindowEnd1h() ? limit1h : remaining1h) - inFlight;
+    }
+
+    /**
+     * Requests the server still allows within the 1 day window, minus the ones that are in flight.
+     *
+     * @param now current time in millis
+     */
+    public int getAvailable1d(long now) {
+        return (now >= getWindowEnd1d() ? limit1d : remaining1d) - inFlight;
+    }
+
+    /**
+     * @return time (millis) at which the current 1 hour window ends
+     */
+    public long getWindowEnd1h() {
+        return lastUpdate + reset1h * 1000L;
+    }
+
+    /**
+     * @return time (millis) at which the current 1 day window ends
+     */
+    public long getWindowEnd1d() {
+        return lastUpdate + reset1d * 1000L;
+    }
+
+    /**
+     * Starts a new window when the current one has passed.
+     * The server numbers are assumed to be reset, they will be corrected by the next response.
+     */
+    LimiterState roll(long now) {
+        if (isEmpty() || !isExpired(now)) {
+            return this;
+        }
+        return new LimiterState(limit5min, limit1h, limit1d,
+                limit5min, remaining1h, remaining1d,
+                300, reset1h, reset1d,
+                lastUpdate, now + 300_000, 0, 0, 0, nextPermit);
+    }
+
+    /**
+     * @param nextPermit time (millis) at which the permit after this one is due
+     * @return state with one more permit handed out
+     */
+    LimiterState reserve(long nextPermit) {
+        return new LimiterState(limit5min, limit1h, limit1d,
+                remaining5min, remaining1h, remaining1d,
+                reset5min, reset1h, reset1d,
+                lastUpdate, windowEnd, doneRequests + 1, inFlight + 1, retries, nextPermit);
+    }
+
+    /**
+     * @return state with the permit of a finished request given back
+     */
+    LimiterState release() {
+        return new LimiterState(limit5min, limit1h, limit1d,
+                remaining5min, remaining1h, remaining1d,
+                reset5min, reset1h, reset1d,
+                lastUpdate, windowEnd, doneRequests, Math.max(0, inFlight - 1), retries, nextPermit);
+    }
+
+    /**
+     * @return state with one more retry within the window
+     */
+    LimiterState retry() {
+        return new LimiterState(limit5min, limit1h, limit1d,
+                remaining5min, remaining1h, remaining1d,
+                reset5min, reset1h, reset1d,
+                lastUpdate, windowEnd, doneRequests, inFlight, retries + 1, nextPermit);
+    }
+
+    /**
+     * Takes limits, remaining requests and seconds until reset, each of 5min/1h/1d.
+     *
+     * @param date server time in millis
+     * @return state with the numbers the server has sent and the permit of the finished request given back
+     */
+    LimiterState update(int limit5min, int limit1h, int limit1d, int remaining5min, int remaining1h, int remaining1d,
+            int reset5min, int reset1h, int reset1d, long date) {
+        return new LimiterState(limit5min, limit1h, limit1d,
+                remaining5min, remaining1h, remaining1d,
+                reset5min, reset1h, reset1d,
+                date, date + reset5min * 1000L, doneRequests, Math.max(0, inFlight - 1), retries, nextPermit);
+    }
+
+    /**
+     * @param values limits, remaining requests and seconds until reset, each of 5min/1h/1d
+     * @param date time in millis the values were read
+     * @return state with the numbers of the account, the permits in flight are kept
+     */
+    LimiterState synchronize(int[] values, long date) {
+        return new LimiterState(values[0], values[1], values[2],
+                values[3], values[4], values[5],
+                values[6], values[7], values[8],
+                date, date + values[6] * 1000L, doneRequests, inFlight, retries, nextPermit);
+    }
+
+    @Override
+    public String toString() {
+        return "LimiterState{" + "limit=" + limit5min + "/" + limit1h + "/" + limit1d
+                + ", remaining=" + remaining5min + "/" + remaining1h + "/" + remaining1d
+                + ", reset=" + reset5min + "/" + reset1h + "/" + reset1d
+                + ", lastUpdate=" + lastUpdate + ", windowEnd=" + windowEnd
+                + ", doneRequests=" + doneRequests + ", inFlight=" + inFlight + ", retries=" + retries + ", nextPermit=" + nextPermit + '}';
+    }
+}
@@ -0,0 +1,27 @@
+package com.lightspeedhq.ecom;
+
+/**
+ * Holds the {@link LimiterState} of a {@link Limiter}.<br>
+ * Implement this to share the permit ledger of an api key between limiters, for example between processes that use
+ * the same key. Every change of the state is done with {@link #compareAndSet(LimiterState, LimiterState)}, so
+ * implementations only need an atomic compare-and-set, no other locking.
+ *
+ * @see InMemoryLimiterStore
+ * @see MappedFileLimiterStore
+ */
+public interface LimiterStore {
+
+    /**
+     * @return current state, {@link LimiterState#EMPTY} if none was stored yet
+     */
+    LimiterState get();
+
+    /**
+     * Replaces the state if it still equals the expected state.
+     *
+     * @param expect state that was read with {@link #get()}
+     * @param update new state
+     * @return true if the state was replaced, false if it was changed in the meantime
+     */
+    boolean compareAndSet(LimiterState expect, LimiterState update);
+}
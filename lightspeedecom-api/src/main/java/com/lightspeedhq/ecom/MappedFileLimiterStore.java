@@ -0,0 +1,146 @@
+package com.lightspeedhq.ecom;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keeps the {@link LimiterState} in a memory-mapped file, so processes on the same host (or containers sharing a
+ * volume) that use the same api key share one permit ledger.<br>
+ * {@link #get()} reads the state under a shared lock on the file, {@link #compareAndSet(LimiterState, LimiterState)}
+ * takes an exclusive lock and compares with the stored state before writing, so a read never sees half a write of
+ * another thread or process.<br>
+ * All processes must use the same file per api key.
+ */
+public class MappedFileLimiterStore implements LimiterStore, Closeable {
+
+    /**
+     * the first 8 bytes are not used
+     */
+    private static final int DATA = 8;
+    private static final int SIZE = DATA + 12 * 4 + 3 * 8;
+
+    /**
+     * FileLock is held per process, these monitors keep the threads (and stores) of this process apart per file. A
+     * monitor is removed when the last store of its file is closed.
+     */
+    static final ConcurrentMap<Path, Monitor> MONITORS = new ConcurrentHashMap<>();
+
+    private final Path path;
+
+    private final Monitor monitor;
+
+    private final FileChannel channel;
+
+    private final MappedByteBuffer buffer;
+
+    private boolean closed = false;
+
+    /**
+     * @param file file to store the state in, created if it doesn't exist
+     * @throws IOException if the file could not be opened or mapped
+     */
+    public MappedFileLimiterStore(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, SIZE);
+            this.path = file.toRealPath();
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+        this.monitor = MONITORS.compute(path, (key, existing) -> {
+            Monitor shared = existing != null ? existing : new Monitor();
+            shared.stores++;
+            return shared;
+        });
+    }
+
+    @Override
+    public LimiterState get() {
+        synchronized (monitor) {
+            try (FileLock lock = channel.lock(0, SIZE, true)) {
+                return read();
+            } catch (IOException ex) {
+                throw new IllegalStateException("Could not lock limiter store", ex);
+            }
+        }
+    }
+
+    @Override
+    public boolean compareAndSet(LimiterState expect, LimiterState update) {
+        synchronized (monitor) {
+            try (FileLock lock = channel.lock(0, SIZE, false)) {
+                if (!read().equals(expect)) {
+                    return false;
+                }
+                write(update);
+                return true;
+            } catch (IOException ex) {
+                throw new IllegalStateException("Could not lock limiter store", ex);
+            }
+        }
+    }
+
+    private LimiterState read() {
+        int position = DATA;
+        int[] ints = new int[12];
+        for (int i = 0; i < ints.length; i++, position += 4) {
+            ints[i] = buffer.getInt(position);
+        }
+        long lastUpdate = buffer.getLong(position);
+        long windowEnd = buffer.getLong(position + 8);
+        long nextPermit = buffer.getLong(position + 16);
+        return new LimiterState(ints[0], ints[1], ints[2],
+                ints[3], ints[4], ints[5],
+                ints[6], ints[7], ints[8],
+                lastUpdate, windowEnd, ints[9], ints[10], ints[11], nextPermit);
+    }
+
+    private void write(LimiterState state) {
+        int[] ints = {
+            state.getLimit5min(), state.getLimit1h(), state.getLimit1d(),
+            state.getRemaining5min(), state.getRemaining1h(), state.getRemaining1d(),
+            state.getReset5min(), state.getReset1h(), state.getReset1d(),
+            state.getDoneRequests(), state.getInFlight(), state.getRetries()
+        };
+        int position = DATA;
+        for (int value : ints) {
+            buffer.putInt(position, value);
+            position += 4;
+        }
+        buffer.putLong(position, state.getLastUpdate());
+        buffer.putLong(position + 8, state.getWindowEnd());
+        buffer.putLong(position + 16, state.getNextPermit());
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        MONITORS.computeIfPresent(path, (key, existing) -> --existing.stores == 0 ? null : existing);
+        buffer.force();
+        channel.close();
+    }
+
+    /**
+     * Monitor of a file, with the number of open stores of the file.
+     */
+    private static class Monitor {
+
+        /**
+         * only changed within the compute functions of MONITORS
+         */
+        private int stores;
+    }
+}
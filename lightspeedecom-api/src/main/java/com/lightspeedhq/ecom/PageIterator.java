@@ -0,0 +1,97 @@
+package com.lightspeedhq.ecom;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Iterates over all results of a list request, fetching the next page when the current one is used up.<br>
+ * Pages are requested with {@link LightspeedEComClient#MAX_LIMIT} (or the 'limit' of the filters), starting at the
+ * 'page' of the filters. A page shorter than the limit is the last one. Only the current page is held.
+ *
+ * <pre>
+ * Iterator&lt;Order&gt; orders = new PageIterator&lt;&gt;(client::getOrders, filters);
+ * </pre>
+ */
+public class PageIterator<T> implements Iterator<T> {
+
+    private final Function<Map<String, Object>, ? extends List<T>> request;
+
+    private final Map<String, Object> filters;
+
+    private final int limit;
+
+    private int page;
+
+    private Iterator<T> current;
+
+    private boolean last = false;
+
+    /**
+     * @param request list request of the client, like client::getProducts
+     * @param filters filters of the request, 'page' and 'limit' are used as the first page and page size
+     */
+    public PageIterator(Function<Map<String, Object>, ? extends List<T>> request, Map<String, Object> filters) {
+        this.request = request;
+        this.filters = new HashMap<>(filters);
+        this.limit = intFilter(filters, "limit", LightspeedEComClient.MAX_LIMIT);
+        this.page = intFilter(filters, "page", LightspeedEComClient.DEFAULT_PAGE);
+        this.filters.put("limit", limit);
+    }
+
+    /**
+     * @param filters filters of a request
+     * @param name name of the filter, like 'limit'
+     * @param defaultValue value if the filter is not set
+     * @return the filter as int, defaultValue if it is not set
+     */
+    public static int intFilter(Map<String, Object> filters, String name, int defaultValue) {
+        Object value = filters.get(name);
+        return value != null ? Integer.parseInt(value.toString()) : defaultValue;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (current == null || !current.hasNext()) {
+            if (last) {
+                return false;
+            }
+            filters.put("page", page++);
+            List<T> results = request.apply(filters);
+            last = results.size() < limit;
+            current = results.iterator();
+        }
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return current.next();
+    }
+
+    /**
+     * @return sequential stream of this iterator, pages are fetched while it is consumed
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * @param request list request of the client, like client::getProducts
+     * @param filters filters of the request
+     * @return lazy stream of all results
+     */
+    public static <T> Stream<T> stream(Function<Map<String, Object>, ? extends List<T>> request, Map<String, Object> filters) {
+        return new PageIterator<>(request, filters).stream();
+    }
+}
@@ -0,0 +1,156 @@
+package com.lightspeedhq.ecom;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Iterates over all results of a list request like {@link PageIterator}, but requests the next pages in the background
+ * through a {@link LightspeedEComAsyncClient} while the current page is used.<br>
+ * At most readAhead pages are requested or waiting to be used, every page takes a permit of the {@link Limiter} like
+ * any other request. Because the last page is only known when it arrives, up to readAhead - 1 requests past the end are
+ * done (and return empty pages).<br>
+ * {@link #close()} cancels the pages that are not used yet: requests still waiting for a permit give it back, requests
+ * already sent are completed but their results are dropped. Close the iterator (or the stream) when not all results
+ * are used.
+ *
+ * <pre>
+ * try (Stream&lt;Product&gt; products = asyncClient.stream(LightspeedEComClient::getProducts, filters, 4)) {
+ *     products.forEach(product -&gt; ...);
+ * }
+ * </pre>
+ */
+public class PrefetchingPageIterator<T> implements Iterator<T>, Closeable {
+
+    private final LightspeedEComAsyncClient asyncClient;
+
+    private final BiFunction<LightspeedEComClient, Map<String, Object>, ? extends List<T>> request;
+
+    private final Map<String, Object> filters;
+
+    private final Priority priority;
+
+    private final int limit;
+
+    private final int readAhead;
+
+    /**
+     * pages requested but not used yet, in order
+     */
+    private final Deque<CompletableFuture<? extends List<T>>> pages = new ArrayDeque<>();
+
+    /**
+     * next page to request
+     */
+    private int page;
+
+    private Iterator<T> current = Collections.emptyIterator();
+
+    private boolean last = false;
+
+    /**
+     * @param asyncClient client to request the pages with
+     * @param request list request, like LightspeedEComClient::getProducts
+     * @param filters filters of the request, 'page' and 'limit' are used as the first page and page size
+     * @param priority priority of the page requests
+     * @param readAhead max number of pages requested ahead of the one being used
+     */
+    public PrefetchingPageIterator(LightspeedEComAsyncClient asyncClient, BiFunction<LightspeedEComClient, Map<String, Object>, ? extends List<T>> request,
+            Map<String, Object> filters, Priority priority, int readAhead) {
+        if (readAhead <= 0) {
+            throw new IllegalArgumentException("readAhead > 0");
+        }
+        this.asyncClient = asyncClient;
+        this.request = request;
+        this.filters = new HashMap<>(filters);
+        this.priority = priority;
+        this.readAhead = readAhead;
+        this.limit = PageIterator.intFilter(filters, "limit", LightspeedEComClient.MAX_LIMIT);
+        this.page = PageIterator.intFilter(filters, "page", LightspeedEComClient.DEFAULT_PAGE);
+        this.filters.put("limit", limit);
+        fill();
+    }
+
+    /**
+     * Requests pages until readAhead pages are pending.
+     */
+    private void fill() {
+        while (!last && pages.size() < readAhead) {
+            Map<String, Object> pageFilters = new HashMap<>(filters);
+            pageFilters.put("page", page++);
+            pages.add(asyncClient.execute(priority, client -> request.apply(client, pageFilters)));
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!current.hasNext()) {
+            CompletableFuture<? extends List<T>> next = pages.poll();
+            if (next == null) {
+                return false;
+            }
+            List<T> results;
+            try {
+                results = next.get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                close();
+                throw new IllegalStateException("Interrupted while waiting for page", ex);
+            } catch (ExecutionException ex) {
+                close();
+                if (ex.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) ex.getCause();
+                }
+                throw new IllegalStateException(ex.getCause());
+            }
+            if (results.size() < limit) {
+                close();//last page, the ones after it are empty
+            } else {
+                fill();
+            }
+            current = results.iterator();
+        }
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return current.next();
+    }
+
+    /**
+     * Cancels the pages that are not used yet, the results of the current page can still be used.
+     */
+    @Override
+    public void close() {
+        last = true;
+        CompletableFuture<? extends List<T>> pending;
+        while ((pending = pages.poll()) != null) {
+            pending.cancel(false);
+        }
+    }
+
+    /**
+     * @return sequential stream of this iterator, closing the stream closes the iterator
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(this::close);
+    }
+}
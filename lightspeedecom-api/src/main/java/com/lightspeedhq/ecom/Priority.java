@@ -0,0 +1,69 @@
+package com.lightspeedhq.ecom;
+
+import java.util.function.Supplier;
+
+/**
+ * Priority class of a request, used by the {@link Limiter} to decide which waiting request gets the next permit.<br>
+ * Every class has its own reserve (requests that must be left for the classes above it) and weight (its share of the
+ * permits while several classes are waiting), see {@link Limiter#setLane(Priority, int, int)}. A request of a class
+ * never waits behind queued requests of a lower class.
+ */
+public enum Priority {
+
+    /**
+     * Requests someone is waiting for, like customer lookups triggered by a webhook.
+     */
+    INTERACTIVE(8),
+    /**
+     * Default for requests without a priority.
+     */
+    NORMAL(4),
+    /**
+     * Bulk work that may wait, like product exports.
+     */
+    BATCH(1);
+
+    private static final ThreadLocal<Priority> CURRENT = new ThreadLocal<>();
+
+    private final int defaultWeight;
+
+    private Priority(int defaultWeight) {
+        this.defaultWeight = defaultWeight;
+    }
+
+    /**
+     * @return weight of the class when none is set on the limiter
+     */
+    public int getDefaultWeight() {
+        return defaultWeight;
+    }
+
+    /**
+     * Runs requests on the calling thread with this priority.
+     *
+     * <pre>
+     * Customer customer = Priority.INTERACTIVE.call(() -&gt; client.getCustomer(customerId));
+     * </pre>
+     */
+    public <T> T call(Supplier<T> request) {
+        Priority previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return request.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * @return priority of the requests on the calling thread, {@link #NORMAL} if none is set
+     */
+    public static Priority current() {
+        Priority priority = CURRENT.get();
+        return priority != null ? priority : NORMAL;
+    }
+}
@@ -0,0 +1,83 @@
+package com.lightspeedhq.ecom;
+
+/**
+ * Parses the values of {@link LightspeedEComClient#HEADER_RATELIMIT_LIMIT},
+ * {@link LightspeedEComClient#HEADER_RATELIMIT_REMAINING} and {@link LightspeedEComClient#HEADER_RATELIMIT_RESET}.<br>
+ * The values are triplets for the 5 minute, 1 hour and 1 day window, like <code>300/3000/12000</code>. They are
+ * scanned in place, without splitting into intermediate strings, and the numbers are written to an array of the caller
+ * or returned one at a time, so parsing allocates nothing.
+ */
+public final class RateLimitHeaders {
+
+    private RateLimitHeaders() {
+    }
+
+    /**
+     * @param value triplet of non-negative numbers separated by <code>/</code>
+     * @param target array to write the 3 numbers to
+     * @param offset index in target of the first number
+     * @throws NumberFormatException when the value is not a triplet
+     */
+    public static void parseTriplet(CharSequence value, int[] target, int offset) {
+        scan(value, target, offset, 0);
+    }
+
+    /**
+     * @param value triplet of non-negative numbers separated by <code>/</code>
+     * @param index index of the number in the triplet, 0 for the 5 minute, 1 for the 1 hour and 2 for the 1 day window
+     * @return the number at index
+     * @throws NumberFormatException when the value is not a triplet
+     */
+    public static int parseNumber(CharSequence value, int index) {
+        if (index < 0 || index > 2) {
+            throw new IndexOutOfBoundsException("index " + index + " of a triplet");
+        }
+        return scan(value, null, 0, index);
+    }
+
+    /**
+     * @param value triplet of non-negative numbers separated by <code>/</code>
+     * @return the first number of the triplet (the 5 minute window)
+     * @throws NumberFormatException when the value is not a triplet
+     */
+    public static int parseFirst(CharSequence value) {
+        return scan(value, null, 0, 0);
+    }
+
+    /**
+     * Checks the whole triplet and writes its numbers to target, if any.
+     *
+     * @return the number at numberIndex
+     */
+    private static int scan(CharSequence value, int[] target, int offset, int numberIndex) {
+        int length = value.length();
+        int index = 0;
+        int result = 0;
+        for (int i = 0; i < 3; i++) {
+            int number = 0;
+            int start = index;
+            while (index < length) {
+                char c = value.charAt(index);
+                if (c == '/') {
+                    break;
+                }
+                if (c < '0' || c > '9' || number > (Integer.MAX_VALUE - 9) / 10) {
+                    throw new NumberFormatException("Invalid rate-limit value: " + value);
+                }
+                number = number * 10 + (c - '0');
+                index++;
+            }
+            if (index == start || (i < 2) != (index < length)) {
+                throw new NumberFormatException("Invalid rate-limit value: " + value);
+            }
+            if (target != null) {
+                target[offset + i] = number;
+            }
+            if (i == numberIndex) {
+                result = number;
+            }
+            index++;//skip '/'
+        }
+        return result;
+    }
+}
@@ -0,0 +1,152 @@
+package com.lightspeedhq.ecom;
+
+import com.lightspeedhq.ecom.domain.Variant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import lombok.extern.java.Log;
+
+/**
+ * Looks up the variants of many products with as few requests as possible.<br>
+ * Per product the variants are requested with the 'product' filter, one request per product. When that is more than
+ * the pages of all variants ({@link LightspeedEComClient#getVariantCount()} / {@link LightspeedEComClient#MAX_LIMIT}),
+ * all variants are scanned instead. Products that are already being looked up by another thread are not requested
+ * again, the result of that lookup is shared.
+ *
+ * <pre>
+ * Map&lt;Integer, List&lt;Variant&gt;&gt; variants = new VariantBatchLookup(client).getVariants(productIds);
+ * </pre>
+ */
+@Log
+public class VariantBatchLookup {
+
+    /**
+     * time the variant count is used before it is requested again
+     */
+    private static final long COUNT_TTL = TimeUnit.MINUTES.toMillis(10);
+
+    public enum Strategy {
+        /**
+         * a request per product
+         */
+        PER_PRODUCT,
+        /**
+         * all pages of variants
+         */
+        SCAN
+    }
+
+    private final LightspeedEComClient client;
+
+    /**
+     * lookups in progress per product
+     */
+    private final ConcurrentMap<Integer, CompletableFuture<List<Variant>>> pending;
+
+    private volatile int variantCount = -1;
+
+    private volatile long variantCountTime;
+
+    public VariantBatchLookup(LightspeedEComClient client) {
+        this(client, new ConcurrentHashMap<>());
+    }
+
+    /**
+     * @param pending map for the lookups in progress, for tests
+     */
+    VariantBatchLookup(LightspeedEComClient client, ConcurrentMap<Integer, CompletableFuture<List<Variant>>> pending) {
+        this.client = client;
+        this.pending = pending;
+    }
+
+    /**
+     * @param productIds ids of the products
+     * @return variants per product id, an empty list for a product without variants
+     */
+    public Map<Integer, List<Variant>> getVariants(Collection<Integer> productIds) {
+        Set<Integer> ids = new LinkedHashSet<>(productIds);
+        Map<Integer, CompletableFuture<List<Variant>>> futures = new HashMap<>();
+        Map<Integer, CompletableFuture<List<Variant>>> own = new HashMap<>();
+        for (Integer id : ids) {
+            CompletableFuture<List<Variant>> future = new CompletableFuture<>();
+            CompletableFuture<List<Variant>> other = pending.putIfAbsent(id, future);
+            if (other == null) {
+                own.put(id, future);
+                futures.put(id, future);
+            } else {
+                futures.put(id, other);
+            }
+        }
+
+        try {
+            Map<Integer, List<Variant>> fetched = fetch(own.keySet());
+            own.forEach((id, future) -> future.complete(fetched.getOrDefault(id, Collections.emptyList())));
+        } catch (Throwable ex) {
+            own.values().forEach(future -> future.completeExceptionally(ex));//also on errors, other threads wait for them
+            throw ex;
+        } finally {
+            own.forEach(pending::remove);
+        }
+
+        Map<Integer, List<Variant>> variants = new HashMap<>();
+        try {
+            futures.forEach((id, future) -> variants.put(id, future.join()));
+        } catch (CompletionException ex) {
+            //lookup of another thread failed
+            if (ex.getCause() instanceof Error) {
+                throw (Error) ex.getCause();
+            }
+            throw ex.getCause() instanceof RuntimeException ? (RuntimeException) ex.getCause() : ex;
+        }
+        return variants;
+    }
+
+    private Map<Integer, List<Variant>> fetch(Set<Integer> productIds) {
+        if (productIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Strategy strategy = strategy(productIds.size());
+        log.fine("Looking up variants of " + productIds.size() + " products with " + strategy);
+        if (strategy == Strategy.SCAN) {
+            return client.streamVariants(Collections.emptyMap())
+                    .filter(variant -> productIds.contains(variant.getProductId()))
+                    .collect(Collectors.groupingBy(Variant::getProductId));
+        }
+        Map<Integer, List<Variant>> variants = new HashMap<>();
+        for (Integer id : productIds) {
+            variants.put(id, client.streamVariants(Collections.singletonMap("product", id)).collect(Collectors.toList()));
+        }
+        return variants;
+    }
+
+    /**
+     * @param products number of products to look up
+     * @return the strategy with the least requests
+     */
+    public Strategy strategy(int products) {
+        if (products <= 1) {
+            return Strategy.PER_PRODUCT;
+        }
+        int scanRequests = (variantCount() + LightspeedEComClient.MAX_LIMIT) / LightspeedEComClient.MAX_LIMIT;
+        return scanRequests < products ? Strategy.SCAN : Strategy.PER_PRODUCT;
+    }
+
+    private int variantCount() {
+        long now = System.currentTimeMillis();
+        if (variantCount == -1 || now - variantCountTime > COUNT_TTL) {
+            variantCount = client.getVariantCount().get();
+            variantCountTime = now;
+        }
+        return variantCount;
+    }
+}
@@ -1,11 +1,9 @@
 package com.lightspeedhq.ecom;
 
-import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JSR310Module;
 import com.lightspeedhq.ecom.domain.Webhook;
 import com.lightspeedhq.ecom.domain.WebhookEvent;
+import com.lightspeedhq.ecom.jackson.ObjectMappers;
 import java.io.IOException;
 import java.util.*;
 import java.util.function.Consumer;
@@ -19,17 +17,19 @@ import org.apache.commons.collections.map.MultiValueMap;
  */
 public class WebhookEventHandler {
 
-    private ObjectMapper om;
+    private final ObjectMapper om;
 
     private MultiValueMap listeners = MultiValueMap.decorate(new HashMap<String, Consumer<WebhookEvent>>());
 
     public WebhookEventHandler() {
-        om = new ObjectMapper();
-        om.configure(SerializationFeature.WRAP_ROOT_VALUE, true);
-        om.configure(DeserializationFeature.UNWRAP_ROOT_VALUE, true);
-        //for using zoneddatetime JsonFormat
-        om.registerModule(new JSR310Module());
-        om.setTimeZone(TimeZone.getTimeZone("UTC"));
+        this(ObjectMappers.shared());
+    }
+
+    /**
+     * @param om mapper for the bodies, unwrapping root values
+     */
+    public WebhookEventHandler(ObjectMapper om) {
+        this.om = om;
     }
 
     @SneakyThrows(IOException.class)
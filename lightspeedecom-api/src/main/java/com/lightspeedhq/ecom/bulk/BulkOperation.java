@@ -0,0 +1,32 @@
+package com.lightspeedhq.ecom.bulk;
+
+import com.lightspeedhq.ecom.LightspeedEComClient;
+import java.util.function.Function;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A single request of a {@link BulkPipeline}, with a key to find its result in the {@link BulkReport}.
+ *
+ * <pre>
+ * BulkOperation.of(customer.getEmail(), client -&gt; client.createCustomer(customer))
+ * </pre>
+ *
+ * @param <K> type of the key
+ * @param <R> type of the result
+ */
+@AllArgsConstructor(staticName = "of")
+public class BulkOperation<K, R> {
+
+    /**
+     * key of the operation, like the id or email of the customer
+     */
+    @Getter
+    private final K key;
+
+    /**
+     * the request, done once per attempt
+     */
+    @Getter
+    private final Function<LightspeedEComClient, R> request;
+}
@@ -0,0 +1,175 @@
+package com.lightspeedhq.ecom.bulk;
+
+import com.lightspeedhq.ecom.LightspeedEComAsyncClient;
+import com.lightspeedhq.ecom.LightspeedEComErrorException;
+import com.lightspeedhq.ecom.LimitException;
+import com.lightspeedhq.ecom.Limiter;
+import com.lightspeedhq.ecom.Priority;
+import feign.RetryableException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Runs a stream of {@link BulkOperation}s, like creating or updating customers, at most concurrency at once through a
+ * {@link LightspeedEComAsyncClient}, so the rate limit is kept by its {@link Limiter}.<br>
+ * An operation that is throttled (the limit is reached or the server answered 429) is tried again after a delay that
+ * grows with every attempt. Other errors, like timeouts, are not retried, as the request may have been done and a
+ * create would be done twice. Every operation gets a {@link BulkResult} in the
+ * {@link BulkReport}.<br>
+ * The operations are taken from the stream while earlier ones run, at most concurrency of them are created ahead, but
+ * the report keeps the result of every operation, so it grows with the stream.
+ *
+ * <pre>
+ * BulkReport&lt;String, Customer&gt; report = new BulkPipeline(asyncClient, 8, 5).run(customers.stream()
+ *         .map(customer -&gt; BulkOperation.of(customer.getEmail(), client -&gt; client.createCustomer(customer))));
+ * report.getFailed().forEach(failed -&gt; ...);
+ * </pre>
+ */
+public class BulkPipeline {
+
+    private final LightspeedEComAsyncClient asyncClient;
+
+    private final int concurrency;
+
+    private final int maxAttempts;
+
+    private final ScheduledExecutorService scheduler;
+
+    private Priority priority = Priority.BATCH;
+
+    private long retryDelay = TimeUnit.SECONDS.toMillis(1);
+
+    /**
+     * @param asyncClient client to do the requests with
+     * @param concurrency max number of operations at once
+     * @param maxAttempts max number of attempts of a throttled operation
+     */
+    public BulkPipeline(LightspeedEComAsyncClient asyncClient, int concurrency, int maxAttempts) {
+        this(asyncClient, concurrency, maxAttempts, Limiter.defaultScheduler());
+    }
+
+    /**
+     * @param asyncClient client to do the requests with
+     * @param concurrency max number of operations at once
+     * @param maxAttempts max number of attempts of a throttled operation
+     * @param scheduler scheduler of the retries
+     */
+    public BulkPipeline(LightspeedEComAsyncClient asyncClient, int concurrency, int maxAttempts, ScheduledExecutorService scheduler) {
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException("concurrency > 0");
+        }
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("maxAttempts > 0");
+        }
+        this.asyncClient = asyncClient;
+        this.concurrency = concurrency;
+        this.maxAttempts = maxAttempts;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * @param priority priority of the requests, by default {@link Priority#BATCH}
+     */
+    public BulkPipeline priority(Priority priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    /**
+     * @param retryDelay delay before the second attempt of a throttled operation, multiplied by the attempt for the next
+     * ones, by default 1 second
+     * @param unit unit of the delay
+     */
+    public BulkPipeline retryDelay(long retryDelay, TimeUnit unit) {
+        if (retryDelay < 0) {
+            throw new IllegalArgumentException("retryDelay >= 0");
+        }
+        this.retryDelay = unit.toMillis(retryDelay);
+        return this;
+    }
+
+    /**
+     * Runs all operations and waits until they are done.
+     *
+     * @param operations operations to run
+     * @return result per operation
+     * @throws InterruptedException if interrupted while waiting, the running operations are completed
+     */
+    public <K, R> BulkReport<K, R> run(Stream<BulkOperation<K, R>> operations) throws InterruptedException {
+        Semaphore running = new Semaphore(concurrency);
+        Phaser done = new Phaser(1);
+        ConcurrentLinkedQueue<BulkResult<K, R>> results = new ConcurrentLinkedQueue<>();
+
+        long index = 0;
+        Iterator<BulkOperation<K, R>> iterator = operations.iterator();
+        while (iterator.hasNext()) {
+            BulkOperation<K, R> operation = iterator.next();
+            running.acquire();
+            done.register();
+            long operationIndex = index++;
+            attempt(operation, 1, result -> {
+                results.add(new BulkResult<>(operationIndex, operation.getKey(), result.value, result.error, result.attempts));
+                running.release();
+                done.arriveAndDeregister();
+            });
+        }
+        done.awaitAdvanceInterruptibly(done.arrive());
+
+        List<BulkResult<K, R>> ordered = new ArrayList<>(results);
+        ordered.sort(Comparator.comparingLong(BulkResult::getIndex));
+        return new BulkReport<>(ordered);
+    }
+
+    private <R> void attempt(BulkOperation<?, R> operation, int attempt, Consumer<Outcome<R>> complete) {
+        asyncClient.execute(priority, operation.getRequest()).whenComplete((value, ex) -> {
+            Throwable error = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+            if (error != null && isThrottled(error) && attempt < maxAttempts) {
+                scheduler.schedule(() -> attempt(operation, attempt + 1, complete), retryDelay * attempt, TimeUnit.MILLISECONDS);
+            } else {
+                complete.accept(new Outcome<>(value, error, attempt));
+            }
+        });
+    }
+
+    /**
+     * A {@link RetryableException} is only throttled when it wraps a 429, it is also thrown for IOExceptions.
+     *
+     * @return true if the request failed because of the rate limit
+     */
+    static boolean isThrottled(Throwable error) {
+        if (error instanceof LimitException) {
+            return true;
+        }
+        if (error instanceof RetryableException) {
+            error = error.getCause();//429 after the retries of the client
+        }
+        return error instanceof LightspeedEComErrorException
+                && ((LightspeedEComErrorException) error).getError() != null
+                && ((LightspeedEComErrorException) error).getError().getCode() == 429;
+    }
+
+    private static class Outcome<R> {
+
+        private final R value;
+
+        private final Throwable error;
+
+        private final int attempts;
+
+        Outcome(R value, Throwable error, int attempts) {
+            this.value = value;
+            this.error = error;
+            this.attempts = attempts;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.lightspeedhq.ecom.bulk;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import lombok.Getter;
+
+/**
+ * Results of all operations of a {@link BulkPipeline} run, in the order of the operations.
+ *
+ * @param <K> type of the key
+ * @param <R> type of the result
+ */
+public class BulkReport<K, R> {
+
+    @Getter
+    private final List<BulkResult<K, R>> results;
+
+    BulkReport(List<BulkResult<K, R>> results) {
+        this.results = Collections.unmodifiableList(results);
+    }
+
+    /**
+     * @return results of the operations that failed
+     */
+    public List<BulkResult<K, R>> getFailed() {
+        return results.stream().filter(result -> !result.isSuccess()).collect(Collectors.toList());
+    }
+
+    public long getSucceededCount() {
+        return results.stream().filter(BulkResult::isSuccess).count();
+    }
+
+    public long getFailedCount() {
+        return results.size() - getSucceededCount();
+    }
+}
@@ -0,0 +1,42 @@
+package com.lightspeedhq.ecom.bulk;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Result of a {@link BulkOperation}: the result of the request or the error of the last attempt.
+ *
+ * @param <K> type of the key
+ * @param <R> type of the result
+ */
+@AllArgsConstructor
+public class BulkResult<K, R> {
+
+    /**
+     * position of the operation in the stream
+     */
+    @Getter
+    private final long index;
+
+    @Getter
+    private final K key;
+
+    /**
+     * result of the request, null if it failed
+     */
+    @Getter
+    private final R result;
+
+    /**
+     * error of the last attempt, null if it succeeded
+     */
+    @Getter
+    private final Throwable error;
+
+    @Getter
+    private final int attempts;
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+}
@@ -0,0 +1,17 @@
+package com.lightspeedhq.ecom.codegen;
+
+import com.fasterxml.jackson.core.Version;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+/**
+ * Registers the deserializers and serializers generated for the classes annotated with {@link GenerateCodec}.
+ */
+public class CodecModule extends SimpleModule {
+
+    private static final long serialVersionUID = 1L;
+
+    public CodecModule() {
+        super("LightspeedEComCodecs", Version.unknownVersion());
+        GeneratedCodecs.register(this);
+    }
+}
@@ -0,0 +1,569 @@
+package com.lightspeedhq.ecom.codegen;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+
+/**
+ * Generates a deserializer and serializer for every class annotated with {@link GenerateCodec}, they read and write
+ * the fields straight from and to the parser and generator (through method handles, as the fields are private) and
+ * only hand nested objects, dates and annotated properties to the (de)serializers of the mapper. Properties without
+ * field, like a getter, are read and written by reflection as the mapper would.<br>
+ * For class Order it generates OrderCodec (with OrderCodec.Deserializer and OrderCodec.Serializer) in the same package,
+ * and GeneratedCodecs to register all of them.<br>
+ * The processor is compiled on its own before the other sources, which it runs on, and is left out of the jar (see
+ * pom.xml).
+ */
+@SupportedAnnotationTypes("com.lightspeedhq.ecom.codegen.GenerateCodec")
+public class CodecProcessor extends AbstractProcessor {
+
+    private static final String JACKSON_ANNOTATION = "com.fasterxml.jackson.annotation.";
+    private static final String JSON_PROPERTY = JACKSON_ANNOTATION + "JsonProperty";
+    private static final String JSON_IGNORE = JACKSON_ANNOTATION + "JsonIgnore";
+    private static final String JSON_CREATOR = JACKSON_ANNOTATION + "JsonCreator";
+    private static final String JSON_VALUE = JACKSON_ANNOTATION + "JsonValue";
+    private static final String JSON_DESERIALIZE = "com.fasterxml.jackson.databind.annotation.JsonDeserialize";
+    private static final String JSON_SERIALIZE = "com.fasterxml.jackson.databind.annotation.JsonSerialize";
+
+    /**
+     * how a property is read or written
+     */
+    enum Kind {
+        /**
+         * int, long, float, double or boolean
+         */
+        PRIMITIVE,
+        /**
+         * Integer, Long, Float, Double or Boolean
+         */
+        BOXED,
+        STRING,
+        /**
+         * enum with a JsonCreator from a String and a JsonValue to a String
+         */
+        ENUM,
+        /**
+         * by the (de)serializer of the mapper or the annotation
+         */
+        DELEGATE
+    }
+
+    static class Property {
+
+        String field;
+        String name;
+        /**
+         * erasure of the type of the field, as in source
+         */
+        String type;
+        boolean primitive;
+        Kind read;
+        Kind write;
+        /**
+         * JsonSerialize with nullsUsing
+         */
+        boolean nullSerializer;
+        String enumCreator;
+        String enumValue;
+    }
+
+    private final List<String> codecs = new ArrayList<>();
+
+    private boolean registryWritten = false;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                TypeElement type = (TypeElement) element;
+                try {
+                    List<Property> properties = properties(type);
+                    if (properties != null) {
+                        writeCodec(type, properties);
+                        codecs.add(type.getQualifiedName().toString());
+                    }
+                } catch (IOException ex) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Can not write codec: " + ex, type);
+                }
+            }
+        }
+        if (!registryWritten && !roundEnv.processingOver()) {
+            try {
+                writeRegistry();
+                registryWritten = true;
+            } catch (IOException ex) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Can not write GeneratedCodecs: " + ex);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return properties of the type, null if it is not supported (an error is reported)
+     */
+    private List<Property> properties(TypeElement type) {
+        if (type.getKind() != ElementKind.CLASS || type.getModifiers().contains(Modifier.ABSTRACT) || !type.getTypeParameters().isEmpty()
+                || type.getNestingKind().isNested() && !type.getModifiers().contains(Modifier.STATIC)
+                || !type.getSuperclass().toString().equals(Object.class.getName())) {
+            error(type, "@GenerateCodec needs a concrete, non-generic class without superclass");
+            return null;
+        }
+        boolean constructor = ElementFilter.constructorsIn(type.getEnclosedElements()).stream()
+                .anyMatch(c -> c.getParameters().isEmpty() && !c.getModifiers().contains(Modifier.PRIVATE));
+        if (!constructor) {
+            error(type, "@GenerateCodec needs a no-arg constructor");
+            return null;
+        }
+
+        List<Property> properties = new ArrayList<>();
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            if (field.getModifiers().contains(Modifier.STATIC) || field.getModifiers().contains(Modifier.TRANSIENT)
+                    || annotation(field, JSON_IGNORE) != null) {
+                continue;
+            }
+            Property property = new Property();
+            property.field = field.getSimpleName().toString();
+            String name = (String) value(annotation(field, JSON_PROPERTY), "value");
+            property.name = name == null || name.isEmpty() ? property.field : name;
+            TypeMirror fieldType = field.asType();
+            property.type = processingEnv.getTypeUtils().erasure(fieldType).toString();
+            property.primitive = fieldType.getKind().isPrimitive();
+            if (property.primitive && !property.type.matches("int|long|float|double|boolean")) {
+                error(field, "@GenerateCodec does not support " + property.type);
+                return null;
+            }
+            if (fieldType.getKind() == TypeKind.TYPEVAR) {
+                error(field, "@GenerateCodec does not support type variables");
+                return null;
+            }
+            Kind kind = kind(property, fieldType);
+            property.read = kind;
+            property.write = kind;
+            for (AnnotationMirror annotation : field.getAnnotationMirrors()) {
+                String annotationType = annotation.getAnnotationType().toString();
+                if (annotationType.equals(JSON_DESERIALIZE)) {
+                    property.read = Kind.DELEGATE;
+                    attributes(field, annotation, "using");
+                } else if (annotationType.equals(JSON_SERIALIZE)) {
+                    property.write = Kind.DELEGATE;
+                    property.nullSerializer = attributes(field, annotation, "using", "nullsUsing").contains("nullsUsing");
+                } else if (annotationType.startsWith("com.fasterxml.jackson.") && !annotationType.equals(JSON_PROPERTY)) {
+                    //like JsonFormat, the (de)serializer of the mapper knows what to do with it
+                    property.read = Kind.DELEGATE;
+                    property.write = Kind.DELEGATE;
+                }
+            }
+            properties.add(property);
+        }
+        return properties;
+    }
+
+    private Kind kind(Property property, TypeMirror fieldType) {
+        if (property.primitive) {
+            return Kind.PRIMITIVE;
+        }
+        switch (property.type) {
+            case "java.lang.String":
+                return Kind.STRING;
+            case "java.lang.Integer":
+            case "java.lang.Long":
+            case "java.lang.Float":
+            case "java.lang.Double":
+            case "java.lang.Boolean":
+                return Kind.BOXED;
+            default:
+        }
+        Element element = processingEnv.getTypeUtils().asElement(fieldType);
+        if (element != null && element.getKind() == ElementKind.ENUM) {
+            for (ExecutableElement method : ElementFilter.methodsIn(element.getEnclosedElements())) {
+                boolean stringParameter = method.getParameters().size() == 1
+                        && method.getParameters().get(0).asType().toString().equals(String.class.getName());
+                boolean publicMethod = method.getModifiers().contains(Modifier.PUBLIC);
+                if (publicMethod && annotation(method, JSON_CREATOR) != null && method.getModifiers().contains(Modifier.STATIC) && stringParameter
+                        && processingEnv.getTypeUtils().isSameType(method.getReturnType(), fieldType)) {
+                    property.enumCreator = method.getSimpleName().toString();
+                }
+                if (publicMethod && annotation(method, JSON_VALUE) != null && !method.getModifiers().contains(Modifier.STATIC) && method.getParameters().isEmpty()
+                        && method.getReturnType().toString().equals(String.class.getName())) {
+                    property.enumValue = method.getSimpleName().toString();
+                }
+            }
+            if (property.enumCreator != null && property.enumValue != null) {
+                return Kind.ENUM;
+            }
+        }
+        return Kind.DELEGATE;
+    }
+
+    /**
+     * The (de)serializer of a JsonDeserialize or JsonSerialize annotation is found by the mapper, other attributes
+     * (like 'as' or 'include') would need the generated code to handle them.
+     *
+     * @param supported attributes that may be set
+     * @return the attributes that are set
+     */
+    private List<String> attributes(Element field, AnnotationMirror annotation, String... supported) {
+        List<String> attributes = new ArrayList<>();
+        for (ExecutableElement value : annotation.getElementValues().keySet()) {
+            String attribute = value.getSimpleName().toString();
+            if (!Arrays.asList(supported).contains(attribute)) {
+                error(field, "@GenerateCodec does not support '" + attribute + "' of " + annotation.getAnnotationType());
+            }
+            attributes.add(attribute);
+        }
+        return attributes;
+    }
+
+    private static AnnotationMirror annotation(Element element, String type) {
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            if (annotation.getAnnotationType().toString().equals(type)) {
+                return annotation;
+            }
+        }
+        return null;
+    }
+
+    private static Object value(AnnotationMirror annotation, String name) {
+        if (annotation == null) {
+            return null;
+        }
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> value : annotation.getElementValues().entrySet()) {
+            if (value.getKey().getSimpleName().contentEquals(name)) {
+                return value.getValue().getValue();
+            }
+        }
+        return null;
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    private void writeCodec(TypeElement type, List<Property> properties) throws IOException {
+        String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        String typeName = type.getQualifiedName().toString();
+        String codecName = codecName(type);
+        try (PrintWriter out = new PrintWriter(processingEnv.getFiler().createSourceFile(packageName + "." + codecName, type).openWriter())) {
+            out.println("package " + packageName + ";");
+            out.println();
+            out.println("import com.fasterxml.jackson.core.JsonGenerator;");
+            out.println("import com.fasterxml.jackson.core.JsonParser;");
+            out.println("import com.fasterxml.jackson.core.JsonToken;");
+            out.println("import com.fasterxml.jackson.databind.DeserializationContext;");
+            out.println("import com.fasterxml.jackson.databind.JsonDeserializer;");
+            out.println("import com.fasterxml.jackson.databind.JsonMappingException;");
+            out.println("import com.fasterxml.jackson.databind.JsonSerializer;");
+            out.println("import com.fasterxml.jackson.databind.SerializerProvider;");
+            out.println("import com.fasterxml.jackson.databind.deser.ResolvableDeserializer;");
+            out.println("import com.fasterxml.jackson.databind.deser.std.StdDeserializer;");
+            out.println("import com.fasterxml.jackson.databind.ser.ResolvableSerializer;");
+            out.println("import com.fasterxml.jackson.databind.ser.std.StdSerializer;");
+            out.println("import com.lightspeedhq.ecom.codegen.CodecSupport;");
+            out.println("import java.io.IOException;");
+            out.println("import java.lang.invoke.MethodHandle;");
+            out.println("import java.util.Collections;");
+            out.println("import java.util.List;");
+            out.println("import java.util.Map;");
+            out.println("import java.util.Set;");
+            out.println("import javax.annotation.Generated;");
+            out.println();
+            out.println("/**");
+            out.println(" * Deserializer and serializer of {@link " + typeName + "}.");
+            out.println(" */");
+            out.println("@Generated(\"" + CodecProcessor.class.getName() + "\")");
+            out.println("@SuppressWarnings({\"unchecked\", \"rawtypes\"})");
+            out.println("public final class " + codecName + " {");
+            out.println();
+            out.println("    private " + codecName + "() {");
+            out.println("    }");
+            out.println();
+            writeDeserializer(out, typeName, properties);
+            out.println();
+            writeSerializer(out, typeName, properties);
+            out.println("}");
+        }
+    }
+
+    private void writeDeserializer(PrintWriter out, String typeName, List<Property> properties) {
+        out.println("    public static final class Deserializer extends StdDeserializer<" + typeName + "> implements ResolvableDeserializer {");
+        out.println();
+        out.println("        private static final long serialVersionUID = 1L;");
+        out.println();
+        for (Property property : properties) {
+            out.println("        private static final MethodHandle SET_" + constant(property) + " = CodecSupport.setter(" + typeName + ".class, \"" + property.field + "\");");
+        }
+        out.println();
+        out.println("        private final boolean[] enabled = new boolean[" + properties.size() + "];");
+        out.println();
+        out.println("        private Set<String> ignored = Collections.emptySet();");
+        out.println();
+        out.println("        private Map<String, CodecSupport.Accessor> others = Collections.emptyMap();");
+        for (Property property : properties) {
+            if (property.read == Kind.DELEGATE || property.read == Kind.ENUM) {
+                out.println();
+                out.println("        private JsonDeserializer<Object> " + property.field + "Deserializer;");
+            }
+        }
+        out.println();
+        out.println("        public Deserializer() {");
+        out.println("            super(" + typeName + ".class);");
+        out.println("        }");
+        out.println();
+        out.println("        @Override");
+        out.println("        public boolean isCachable() {");
+        out.println("            return true;");
+        out.println("        }");
+        out.println();
+        out.println("        @Override");
+        out.println("        public void resolve(DeserializationContext ctxt) throws JsonMappingException {");
+        out.println("            CodecSupport.Properties properties = CodecSupport.forDeserialization(ctxt, " + typeName + ".class);");
+        for (int i = 0; i < properties.size(); i++) {
+            Property property = properties.get(i);
+            out.println("            enabled[" + i + "] = properties.has(\"" + property.field + "\", \"" + property.name + "\");");
+            if (property.read == Kind.DELEGATE || property.read == Kind.ENUM) {
+                out.println("            if (enabled[" + i + "]) {");
+                out.println("                " + property.field + "Deserializer = properties.deserializer(ctxt, \"" + property.field + "\");");
+                out.println("            }");
+            }
+        }
+        out.println("            ignored = properties.getIgnored();");
+        out.println("            others = properties.others(ctxt);");
+        out.println("        }");
+        out.println();
+        out.println("        @Override");
+        out.println("        public " + typeName + " deserialize(JsonParser jp, DeserializationContext ctxt) throws IOException {");
+        out.println("            JsonToken token = jp.getCurrentToken();");
+        out.println("            if (token == JsonToken.START_OBJECT) {");
+        out.println("                token = jp.nextToken();");
+        out.println("            } else if (token != JsonToken.FIELD_NAME && token != JsonToken.END_OBJECT) {");
+        out.println("                throw ctxt.mappingException(" + typeName + ".class);");
+        out.println("            }");
+        out.println("            " + typeName + " bean = new " + typeName + "();");
+        out.println("            for (; token == JsonToken.FIELD_NAME; token = jp.nextToken()) {");
+        out.println("                String name = jp.getCurrentName();");
+        out.println("                jp.nextToken();");
+        out.println("                try {");
+        out.println("                    if (read(bean, name, jp, ctxt)) {");
+        out.println("                        continue;");
+        out.println("                    }");
+        out.println("                } catch (IllegalArgumentException ex) {");
+        out.println("                    throw CodecSupport.wrap(jp, " + typeName + ".class, name, ex);");
+        out.println("                }");
+        out.println("                CodecSupport.Accessor other = others.get(name);");
+        out.println("                if (other != null) {");
+        out.println("                    other.read(bean, jp, ctxt);");
+        out.println("                } else if (ignored.contains(name)) {");
+        out.println("                    jp.skipChildren();");
+        out.println("                } else {");
+        out.println("                    handleUnknownProperty(jp, ctxt, bean, name);");
+        out.println("                }");
+        out.println("            }");
+        out.println("            return bean;");
+        out.println("        }");
+        out.println();
+        out.println("        /**");
+        out.println("         * @return false if the property is not known");
+        out.println("         */");
+        out.println("        private boolean read(" + typeName + " bean, String name, JsonParser jp, DeserializationContext ctxt) throws IOException {");
+        out.println("            try {");
+        out.println("                switch (name) {");
+        for (int i = 0; i < properties.size(); i++) {
+            Property property = properties.get(i);
+            out.println("                    case \"" + property.name + "\":");
+            out.println("                        if (!enabled[" + i + "]) {");
+            out.println("                            return false;");
+            out.println("                        }");
+            out.println("                        SET_" + constant(property) + ".invokeExact(bean, " + readExpression(property) + ");");
+            out.println("                        return true;");
+        }
+        out.println("                    default:");
+        out.println("                        return false;");
+        out.println("                }");
+        out.println("            } catch (IOException | RuntimeException | Error ex) {");
+        out.println("                throw ex;");
+        out.println("            } catch (Throwable ex) {");
+        out.println("                throw new IllegalStateException(ex);");
+        out.println("            }");
+        out.println("        }");
+        out.println("    }");
+    }
+
+    private static String readExpression(Property property) {
+        switch (property.read) {
+            case PRIMITIVE:
+                return "_parse" + capitalize(property.type) + "Primitive(jp, ctxt)";
+            case BOXED:
+                return "_parse" + property.type.substring("java.lang.".length()) + "(jp, ctxt)";
+            case STRING:
+                //cast, a conditional argument of invokeExact would be an Object
+                return "(String) (jp.getCurrentToken() == JsonToken.VALUE_NULL ? null : _parseString(jp, ctxt))";
+            case ENUM:
+                return "(" + property.type + ") (jp.getCurrentToken() == JsonToken.VALUE_STRING ? " + property.type + "." + property.enumCreator + "(jp.getText())"
+                        + " : CodecSupport.deserialize(" + property.field + "Deserializer, jp, ctxt))";
+            default:
+                String value = "CodecSupport.deserialize(" + property.field + "Deserializer, jp, ctxt)";
+                return property.primitive ? "CodecSupport." + property.type + "Value(" + value + ")" : "(" + property.type + ") " + value;
+        }
+    }
+
+    private void writeSerializer(PrintWriter out, String typeName, List<Property> properties) {
+        out.println("    public static final class Serializer extends StdSerializer<" + typeName + "> implements ResolvableSerializer {");
+        out.println();
+        for (Property property : properties) {
+            out.println("        private static final MethodHandle GET_" + constant(property) + " = CodecSupport.getter(" + typeName + ".class, \"" + property.field + "\");");
+        }
+        out.println();
+        out.println("        private final boolean[] enabled = new boolean[" + properties.size() + "];");
+        out.println();
+        out.println("        private List<CodecSupport.Accessor> others = Collections.emptyList();");
+        for (Property property : properties) {
+            if (property.write == Kind.DELEGATE) {
+                out.println();
+                out.println("        private JsonSerializer<Object> " + property.field + "Serializer;");
+            }
+            if (property.nullSerializer) {
+                out.println();
+                out.println("        private JsonSerializer<Object> " + property.field + "NullSerializer;");
+            }
+        }
+        out.println();
+        out.println("        public Serializer() {");
+        out.println("            super(" + typeName + ".class);");
+        out.println("        }");
+        out.println();
+        out.println("        @Override");
+        out.println("        public void resolve(SerializerProvider provider) throws JsonMappingException {");
+        out.println("            CodecSupport.Properties properties = CodecSupport.forSerialization(provider, " + typeName + ".class);");
+        for (int i = 0; i < properties.size(); i++) {
+            Property property = properties.get(i);
+            out.println("            enabled[" + i + "] = properties.has(\"" + property.field + "\", \"" + property.name + "\");");
+            if (property.write == Kind.DELEGATE) {
+                out.println("            if (enabled[" + i + "]) {");
+                out.println("                " + property.field + "Serializer = properties.serializer(provider, \"" + property.field + "\");");
+                if (property.nullSerializer) {
+                    out.println("                " + property.field + "NullSerializer = properties.nullSerializer(provider, \"" + property.field + "\");");
+                }
+                out.println("            }");
+            }
+        }
+        out.println("            others = properties.others(provider);");
+        out.println("        }");
+        out.println();
+        out.println("        @Override");
+        out.println("        public void serialize(" + typeName + " value, JsonGenerator jgen, SerializerProvider provider) throws IOException {");
+        out.println("            jgen.writeStartObject();");
+        out.println("            try {");
+        for (int i = 0; i < properties.size(); i++) {
+            Property property = properties.get(i);
+            out.println("                if (enabled[" + i + "]) {");
+            out.println("                    " + writeStatement(property));
+            out.println("                }");
+        }
+        out.println("            } catch (IOException | RuntimeException | Error ex) {");
+        out.println("                throw ex;");
+        out.println("            } catch (Throwable ex) {");
+        out.println("                throw new IllegalStateException(ex);");
+        out.println("            }");
+        out.println("            for (CodecSupport.Accessor other : others) {");
+        out.println("                other.write(value, jgen, provider);");
+        out.println("            }");
+        out.println("            jgen.writeEndObject();");
+        out.println("        }");
+        out.println("    }");
+    }
+
+    private static String writeStatement(Property property) {
+        String name = "\"" + property.name + "\"";
+        String value = "(" + property.type + ") GET_" + constant(property) + ".invokeExact(value)";
+        switch (property.write) {
+            case PRIMITIVE:
+                return property.type.equals("boolean")
+                        ? "jgen.writeBooleanField(" + name + ", " + value + ");"
+                        : "jgen.writeNumberField(" + name + ", " + value + ");";
+            case BOXED:
+                return property.type.equals("java.lang.Boolean")
+                        ? "CodecSupport.writeBoolean(" + name + ", " + value + ", jgen, provider);"
+                        : "CodecSupport.writeNumber(" + name + ", " + value + ", jgen, provider);";
+            case STRING:
+                return "CodecSupport.writeString(" + name + ", " + value + ", jgen, provider);";
+            case ENUM:
+                return property.type + " " + property.field + " = " + value + ";\n"
+                        + "                    CodecSupport.writeString(" + name + ", " + property.field + " == null ? null : " + property.field + "." + property.enumValue + "(), jgen, provider);";
+            default:
+                String nullSerializer = property.nullSerializer ? property.field + "NullSerializer" : "null";
+                return "CodecSupport.serialize(" + property.field + "Serializer, " + nullSerializer + ", " + name + ", " + value + ", jgen, provider);";
+        }
+    }
+
+    private void writeRegistry() throws IOException {
+        String packageName = CodecProcessor.class.getPackage().getName();
+        try (PrintWriter out = new PrintWriter(processingEnv.getFiler().createSourceFile(packageName + ".GeneratedCodecs").openWriter())) {
+            out.println("package " + packageName + ";");
+            out.println();
+            out.println("import com.fasterxml.jackson.databind.module.SimpleModule;");
+            out.println("import javax.annotation.Generated;");
+            out.println();
+            out.println("/**");
+            out.println(" * Registers the codecs of the classes annotated with {@link GenerateCodec}.");
+            out.println(" */");
+            out.println("@Generated(\"" + CodecProcessor.class.getName() + "\")");
+            out.println("final class GeneratedCodecs {");
+            out.println();
+            out.println("    private GeneratedCodecs() {");
+            out.println("    }");
+            out.println();
+            out.println("    static void register(SimpleModule module) {");
+            for (String codec : codecs) {
+                TypeElement type = processingEnv.getElementUtils().getTypeElement(codec);
+                String codecType = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName() + "." + codecName(type);
+                out.println("        module.addDeserializer(" + codec + ".class, new " + codecType + ".Deserializer());");
+                out.println("        module.addSerializer(" + codec + ".class, new " + codecType + ".Serializer());");
+            }
+            out.println("    }");
+            out.println("}");
+        }
+    }
+
+    /**
+     * @return Order for Order, Order_Item for the nested Item of Order, with Codec appended
+     */
+    private String codecName(TypeElement type) {
+        String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        String name = type.getQualifiedName().toString();
+        return (packageName.isEmpty() ? name : name.substring(packageName.length() + 1)).replace('.', '_') + "Codec";
+    }
+
+    private static String constant(Property property) {
+        return property.field.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toUpperCase();
+    }
+
+    private static String capitalize(String value) {
+        return Character.toUpperCase(value.charAt(0)) + value.substring(1);
+    }
+}
@@ -0,0 +1,351 @@
+package com.lightspeedhq.ecom.codegen;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.PropertyName;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.ContextualDeserializer;
+import com.fasterxml.jackson.databind.introspect.AnnotatedField;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMethod;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Used by the code the {@link CodecProcessor} generates.<br>
+ * The fields are accessed through method handles that are created once, the properties that need another
+ * (de)serializer get the one of the mapper when the generated one is resolved. Which properties exist and their names
+ * are checked against the introspection of the mapper, so the generated code reads and writes what Jackson would.
+ */
+public final class CodecSupport {
+
+    private CodecSupport() {
+    }
+
+    /**
+     * @return handle that reads the field, (Type)FieldType
+     */
+    public static MethodHandle getter(Class<?> type, String field) {
+        try {
+            return MethodHandles.lookup().unreflectGetter(field(type, field));
+        } catch (IllegalAccessException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * @return handle that writes the field, (Type, FieldType)void
+     */
+    public static MethodHandle setter(Class<?> type, String field) {
+        try {
+            return MethodHandles.lookup().unreflectSetter(field(type, field));
+        } catch (IllegalAccessException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static Field field(Class<?> type, String name) {
+        try {
+            Field field = type.getDeclaredField(name);
+            field.setAccessible(true);
+            return field;
+        } catch (NoSuchFieldException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    public static Properties forDeserialization(DeserializationContext ctxt, Class<?> type) {
+        return new Properties(type, ctxt.getConfig().introspect(ctxt.constructType(type)), false);
+    }
+
+    public static Properties forSerialization(SerializerProvider provider, Class<?> type) {
+        return new Properties(type, provider.getConfig().introspect(provider.constructType(type)), true);
+    }
+
+    /**
+     * @return value of the current token, the null value of the deserializer for null
+     */
+    public static Object deserialize(JsonDeserializer<Object> deserializer, JsonParser jp, DeserializationContext ctxt) throws IOException {
+        if (jp.getCurrentToken() == JsonToken.VALUE_NULL) {
+            return deserializer.getNullValue();
+        }
+        return deserializer.deserialize(jp, ctxt);
+    }
+
+    /**
+     * Unboxes the value of a deserializer for a primitive field, null is 0.
+     */
+    public static int intValue(Object value) {
+        return value == null ? 0 : ((Number) value).intValue();
+    }
+
+    public static long longValue(Object value) {
+        return value == null ? 0 : ((Number) value).longValue();
+    }
+
+    public static float floatValue(Object value) {
+        return value == null ? 0 : ((Number) value).floatValue();
+    }
+
+    public static double doubleValue(Object value) {
+        return value == null ? 0 : ((Number) value).doubleValue();
+    }
+
+    public static boolean booleanValue(Object value) {
+        return value != null && (Boolean) value;
+    }
+
+    /**
+     * @param nullSerializer serializer of a null value, null for the one of the provider
+     */
+    public static void serialize(JsonSerializer<Object> serializer, JsonSerializer<Object> nullSerializer, String name, Object value,
+            JsonGenerator jgen, SerializerProvider provider) throws IOException {
+        jgen.writeFieldName(name);
+        if (value == null && nullSerializer != null) {
+            nullSerializer.serialize(null, jgen, provider);
+        } else if (value == null) {
+            provider.defaultSerializeNull(jgen);
+        } else {
+            serializer.serialize(value, jgen, provider);
+        }
+    }
+
+    public static void writeString(String name, String value, JsonGenerator jgen, SerializerProvider provider) throws IOException {
+        jgen.writeFieldName(name);
+        if (value == null) {
+            provider.defaultSerializeNull(jgen);
+        } else {
+            jgen.writeString(value);
+        }
+    }
+
+    public static void writeNumber(String name, Number value, JsonGenerator jgen, SerializerProvider provider) throws IOException {
+        jgen.writeFieldName(name);
+        if (value == null) {
+            provider.defaultSerializeNull(jgen);
+        } else if (value instanceof Integer) {
+            jgen.writeNumber(value.intValue());
+        } else if (value instanceof Long) {
+            jgen.writeNumber(value.longValue());
+        } else if (value instanceof Float) {
+            jgen.writeNumber(value.floatValue());
+        } else {
+            jgen.writeNumber(value.doubleValue());
+        }
+    }
+
+    public static void writeBoolean(String name, Boolean value, JsonGenerator jgen, SerializerProvider provider) throws IOException {
+        jgen.writeFieldName(name);
+        if (value == null) {
+            provider.defaultSerializeNull(jgen);
+        } else {
+            jgen.writeBoolean(value);
+        }
+    }
+
+    /**
+     * @return exception for a value that could not be read, like an unknown enum constant
+     */
+    public static JsonMappingException wrap(JsonParser jp, Class<?> type, String name, RuntimeException ex) {
+        return new JsonMappingException("Can not deserialize property '" + name + "' of " + type.getName() + ": " + ex.getMessage(),
+                jp.getCurrentLocation(), ex);
+    }
+
+    /**
+     * The properties the mapper found by introspection, by name of the field.
+     */
+    public static class Properties {
+
+        private final Class<?> type;
+
+        private final BeanDescription description;
+
+        private final boolean serialization;
+
+        private final Map<String, BeanPropertyDefinition> byField = new HashMap<>();
+
+        private final Set<String> handled = new HashSet<>();
+
+        private Properties(Class<?> type, BeanDescription description, boolean serialization) {
+            this.type = type;
+            this.description = description;
+            this.serialization = serialization;
+            for (BeanPropertyDefinition property : description.findProperties()) {
+                byField.put(property.getInternalName(), property);
+            }
+        }
+
+        /**
+         * @param field name of the field
+         * @param name name in json
+         * @return true if the mapper reads (or writes) the field with this name
+         */
+        public boolean has(String field, String name) {
+            BeanPropertyDefinition property = byField.get(field);
+            boolean has = property != null && property.getName().equals(name)
+                    && (serialization ? property.couldSerialize() : property.couldDeserialize());
+            if (has) {
+                handled.add(field);
+            }
+            return has;
+        }
+
+        /**
+         * @return names that are read and ignored
+         */
+        public Set<String> getIgnored() {
+            return description.getIgnoredPropertyNames();
+        }
+
+        /**
+         * @param field name of the field, {@link #has(String, String)} must be true
+         * @return contextual deserializer of the property, of its JsonDeserialize annotation or of the mapper
+         */
+        public JsonDeserializer<Object> deserializer(DeserializationContext ctxt, String field) throws JsonMappingException {
+            BeanPropertyDefinition definition = byField.get(field);
+            AnnotatedMember mutator = definition.getMutator();
+            return deserializer(ctxt, property(definition, mutator, field(type, field).getGenericType()), ctxt.getAnnotationIntrospector().findDeserializer(mutator));
+        }
+
+        /**
+         * @param field name of the field, {@link #has(String, String)} must be true
+         * @return contextual serializer of the property, of its JsonSerialize annotation or of the mapper
+         */
+        public JsonSerializer<Object> serializer(SerializerProvider provider, String field) throws JsonMappingException {
+            BeanPropertyDefinition definition = byField.get(field);
+            AnnotatedMember accessor = definition.getAccessor();
+            return serializer(provider, property(definition, accessor, field(type, field).getGenericType()), provider.getAnnotationIntrospector().findSerializer(accessor));
+        }
+
+        /**
+         * @param field name of the field, {@link #has(String, String)} must be true
+         * @return serializer of a null value of the property (nullsUsing of JsonSerialize), null for the one of the provider
+         */
+        public JsonSerializer<Object> nullSerializer(SerializerProvider provider, String field) throws JsonMappingException {
+            AnnotatedMember accessor = byField.get(field).getAccessor();
+            return provider.serializerInstance(accessor, provider.getAnnotationIntrospector().findNullSerializer(accessor));
+        }
+
+        /**
+         * The properties the mapper reads that are not a field of the generated code, like a setter without field.
+         * Call it after {@link #has(String, String)} was called for all fields.
+         *
+         * @return the other properties by name in json
+         */
+        public Map<String, Accessor> others(DeserializationContext ctxt) throws JsonMappingException {
+            Map<String, Accessor> others = new HashMap<>();
+            for (BeanPropertyDefinition definition : byField.values()) {
+                AnnotatedMember mutator = definition.getMutator();
+                if (handled.contains(definition.getInternalName()) || !definition.couldDeserialize()
+                        || !(mutator instanceof AnnotatedMethod || mutator instanceof AnnotatedField)) {
+                    continue;
+                }
+                Type memberType = mutator instanceof AnnotatedMethod ? ((AnnotatedMethod) mutator).getGenericParameterType(0) : mutator.getGenericType();
+                BeanProperty property = property(definition, mutator, memberType);
+                Object using = ctxt.getAnnotationIntrospector().findDeserializer(mutator);
+                mutator.fixAccess();
+                others.put(definition.getName(), new Accessor(definition.getName(), mutator, deserializer(ctxt, property, using), null));
+            }
+            return others;
+        }
+
+        /**
+         * The properties the mapper writes that are not a field of the generated code, like a getter without field.
+         * Call it after {@link #has(String, String)} was called for all fields.
+         *
+         * @return the other properties
+         */
+        public List<Accessor> others(SerializerProvider provider) throws JsonMappingException {
+            List<Accessor> others = new ArrayList<>();
+            for (BeanPropertyDefinition definition : byField.values()) {
+                AnnotatedMember accessor = definition.getAccessor();
+                if (handled.contains(definition.getInternalName()) || !definition.couldSerialize() || accessor == null) {
+                    continue;
+                }
+                BeanProperty property = property(definition, accessor, accessor.getGenericType());
+                Object using = provider.getAnnotationIntrospector().findSerializer(accessor);
+                accessor.fixAccess();
+                others.add(new Accessor(definition.getName(), accessor, null, serializer(provider, property, using)));
+            }
+            return others;
+        }
+
+        @SuppressWarnings("unchecked")
+        private JsonDeserializer<Object> deserializer(DeserializationContext ctxt, BeanProperty property, Object using) throws JsonMappingException {
+            JsonDeserializer<Object> deserializer = ctxt.deserializerInstance(property.getMember(), using);
+            if (deserializer == null) {
+                return ctxt.findContextualValueDeserializer(property.getType(), property);
+            }
+            if (deserializer instanceof ContextualDeserializer) {
+                deserializer = (JsonDeserializer<Object>) ((ContextualDeserializer) deserializer).createContextual(ctxt, property);
+            }
+            return deserializer;
+        }
+
+        @SuppressWarnings("unchecked")
+        private JsonSerializer<Object> serializer(SerializerProvider provider, BeanProperty property, Object using) throws JsonMappingException {
+            JsonSerializer<Object> serializer = provider.serializerInstance(property.getMember(), using);
+            if (serializer == null) {
+                return provider.findValueSerializer(property.getType(), property);
+            }
+            if (serializer instanceof ContextualSerializer) {
+                serializer = (JsonSerializer<Object>) ((ContextualSerializer) serializer).createContextual(provider, property);
+            }
+            return serializer;
+        }
+
+        private BeanProperty property(BeanPropertyDefinition definition, AnnotatedMember member, Type memberType) {
+            JavaType propertyType = description.resolveType(memberType);
+            return new BeanProperty.Std(new PropertyName(definition.getName()), propertyType, definition.getWrapperName(),
+                    description.getClassAnnotations(), member, definition.getMetadata());
+        }
+    }
+
+    /**
+     * A property that is read or written by reflection, see {@link Properties#others(DeserializationContext)}.
+     */
+    public static class Accessor {
+
+        private final String name;
+
+        private final AnnotatedMember member;
+
+        private final JsonDeserializer<Object> deserializer;
+
+        private final JsonSerializer<Object> serializer;
+
+        private Accessor(String name, AnnotatedMember member, JsonDeserializer<Object> deserializer, JsonSerializer<Object> serializer) {
+            this.name = name;
+            this.member = member;
+            this.deserializer = deserializer;
+            this.serializer = serializer;
+        }
+
+        public void read(Object bean, JsonParser jp, DeserializationContext ctxt) throws IOException {
+            member.setValue(bean, deserialize(deserializer, jp, ctxt));
+        }
+
+        public void write(Object bean, JsonGenerator jgen, SerializerProvider provider) throws IOException {
+            serialize(serializer, null, name, member.getValue(bean), jgen, provider);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.lightspeedhq.ecom.codegen;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Lets the {@link CodecProcessor} generate a deserializer and serializer for the class, registered by the
+ * {@link CodecModule}.<br>
+ * The class needs a no-arg constructor and no superclass, its fields are read and written as Jackson would by their
+ * annotations.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface GenerateCodec {
+}
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonRootName;
 import com.lightspeedhq.ecom.LightspeedEComClient;
+import com.lightspeedhq.ecom.codegen.GenerateCodec;
 import java.io.Serializable;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
@@ -15,6 +16,7 @@ import lombok.Getter;
  * @see <a href="http://developers.seoshop.com/api/resources/brand">http://developers.seoshop.com/api/resources/brand</a>
  * @author stevensnoeijen
  */
+@GenerateCodec
 @JsonRootName("brand")
 public class Brand implements Serializable {
 
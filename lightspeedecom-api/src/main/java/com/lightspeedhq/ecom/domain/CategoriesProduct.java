@@ -3,6 +3,7 @@ package com.lightspeedhq.ecom.domain;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonRootName;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.lightspeedhq.ecom.codegen.GenerateCodec;
 import com.lightspeedhq.ecom.jackson.ResourceIdDeserializer;
 import java.io.Serializable;
 import java.util.ArrayList;
@@ -15,6 +16,7 @@ import lombok.Getter;
  * @see <a href="http://developers.seoshop.com/api/resources/categoriesproduct">http://developers.seoshop.com/api/resources/categoriesproduct</a>
  * @author stevensnoeijen
  */
+@GenerateCodec
 @JsonRootName("categoriesProduct")
 public class CategoriesProduct implements Serializable {
 
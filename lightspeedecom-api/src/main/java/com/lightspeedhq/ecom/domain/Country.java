@@ -1,5 +1,6 @@
 package com.lightspeedhq.ecom.domain;
 
+import com.lightspeedhq.ecom.codegen.GenerateCodec;
 import java.io.Serializable;
 import lombok.Getter;
 
@@ -9,6 +10,7 @@ import lombok.Getter;
  * @author stevensnoeijen
  */
 //@JsonRootName("country")
+@GenerateCodec
 public class Country implements Serializable {
 
     private static final long serialVersionUID = 2L;
@@ -8,6 +8,7 @@ import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
 import com.lightspeedhq.ecom.LightspeedEComClient;
+import com.lightspeedhq.ecom.codegen.GenerateCodec;
 import com.lightspeedhq.ecom.jackson.FalseNullDeserializer;
 import com.lightspeedhq.ecom.jackson.FalseNullSerializer;
 import java.io.Serializable;
@@ -24,6 +25,7 @@ import lombok.Setter;
  * @see <a href="http://developers.seoshop.com/api/resources/customer">http://developers.seoshop.com/api/resources/customer</a>
  * @author stevensnoeijen
  */
+@GenerateCodec
 @JsonRootName("customer")
 public class Customer implements Serializable {
 
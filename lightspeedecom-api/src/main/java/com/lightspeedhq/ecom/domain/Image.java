@@ -2,6 +2,7 @@ package com.lightspeedhq.ecom.domain;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.lightspeedhq.ecom.LightspeedEComClient;
+import com.lightspeedhq.ecom.codegen.GenerateCodec;
 import java.io.Serializable;
 import java.time.ZonedDateTime;
 import lombok.Getter;
@@ -14,6 +15,7 @@ import lombok.Getter;
  * @see <a href="http://developers.seoshop.com/api/resources/categoryimage">http://developers.seoshop.com/api/resources/categoryimage</a>
  * @author stevensnoeijen
  */
+@GenerateCodec
 public class Image implements Serializable {
 
     private static final long serialVersionUID = 2L;
@@ -2,6 +2,7 @@ package com.lightspeedhq.ecom.domain;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonRootName;
+import com.lightspeedhq.ecom.codegen.GenerateCodec;
 import java.io.Serializable;
 import java.util.ArrayList;
 import lombok.Getter;
@@ -13,6 +14,7 @@ import lombok.Getter;
  * @author stevensnoeijen
  */
 //@JsonRootName("language")
+@GenerateCodec
 public class Language implements Serializable {
 
     private static final long serialVersionUID = 2L;
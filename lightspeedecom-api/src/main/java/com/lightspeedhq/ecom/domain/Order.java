@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.*;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.lightspeedhq.ecom.LightspeedEComClient;
+import com.lightspeedhq.ecom.codegen.GenerateCodec;
 import com.lightspeedhq.ecom.jackson.FalseNullDeserializer;
 import com.lightspeedhq.ecom.jackson.FalseNullSerializer;
 import com.lightspeedhq.ecom.jackson.ResourceIdDeserializer;
@@ -24,6 +25,7 @@ import lombok.Setter;
  * @author stevensnoeijen
  * @see <a href="http://developers.seoshop.com/api/resources/order">http://developers.seoshop.com/api/resources/order</a>
  */
+@GenerateCodec
 @JsonRootName("order")
 public class Order implements Serializable {
 
@@ -3,6 +3,7 @@ package com.lightspeedhq.ecom.domain;
 import com.fasterxml.jackson.annotation.*;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.lightspeedhq.ecom.LightspeedEComClient;
+import com.lightspeedhq.ecom.codegen.GenerateCodec;
 import com.lightspeedhq.ecom.jackson.FalseNullDeserializer;
 import com.lightspeedhq.ecom.jackson.ResourceIdDeserializer;
 import java.io.Serializable;
@@ -16,6 +17,7 @@ import lombok.Getter;
  * @see <a href="http://developers.seoshop.com/api/resources/product">http://developers.seoshop.com/api/resources/product</a>
  * @author stevensnoeijen
  */
+@GenerateCodec
 @JsonRootName("product")
 public class Product implements Serializable {
 
@@ -5,6 +5,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonRootName;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.lightspeedhq.ecom.LightspeedEComClient;
+import com.lightspeedhq.ecom.codegen.GenerateCodec;
 import com.lightspeedhq.ecom.jackson.FalseNullDeserializer;
 import com.lightspeedhq.ecom.jackson.ResourceIdDeserializer;
 import java.io.Serializable;
@@ -19,6 +20,7 @@ import lombok.Getter;
  * @see <A href="http://developers.lightspeedhq.com/ecom/endpoints/quote/">http://developers.lightspeedhq.com/ecom/endpoints/quote/</a>
  * @author stevensnoeijen
  */
+@GenerateCodec
 @JsonRootName(value = "quote")
 public class Quote implements Serializable {
 
@@ -1,12 +1,16 @@
 package com.lightspeedhq.ecom.domain;
 
+import lombok.AllArgsConstructor;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 
 /**
  * Link to another resource
  *
  * @author stevensnoeijen
  */
+@NoArgsConstructor
+@AllArgsConstructor
 public class Resource {
 
     @Getter
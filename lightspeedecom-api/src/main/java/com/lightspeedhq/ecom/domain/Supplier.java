@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonRootName;
 import com.lightspeedhq.ecom.LightspeedEComClient;
+import com.lightspeedhq.ecom.codegen.GenerateCodec;
 import java.io.Serializable;
 import java.time.ZonedDateTime;
 import lombok.Getter;
@@ -14,6 +15,7 @@ import lombok.Getter;
  * @see <a href="http://developers.seoshop.com/api/resources/supplier">http://developers.seoshop.com/api/resources/supplier</a>
  * @author stevensnoeijen
  */
+@GenerateCodec
 @JsonRootName("supplier")
 public class Supplier implements Serializable {
 
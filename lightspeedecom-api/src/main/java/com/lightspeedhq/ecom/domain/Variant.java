@@ -3,6 +3,7 @@ package com.lightspeedhq.ecom.domain;
 import com.fasterxml.jackson.annotation.*;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.lightspeedhq.ecom.LightspeedEComClient;
+import com.lightspeedhq.ecom.codegen.GenerateCodec;
 import com.lightspeedhq.ecom.jackson.FalseNullDeserializer;
 import com.lightspeedhq.ecom.jackson.ResourceIdDeserializer;
 import java.io.Serializable;
@@ -19,6 +20,7 @@ import org.apache.commons.lang.StringUtils;
  * @see <a href="http://developers.lightspeedhq.com/ecom/endpoints/variant/">http://developers.lightspeedhq.com/ecom/endpoints/variant/</a>
  * @author stevensnoeijen
  */
+@GenerateCodec
 @JsonRootName("variant")
 public class Variant implements Serializable {
 
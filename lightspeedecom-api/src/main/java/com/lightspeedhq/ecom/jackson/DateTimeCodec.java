@@ -0,0 +1,186 @@
+package com.lightspeedhq.ecom.jackson;
+
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Reads and writes the timestamps of the api ({@link com.lightspeedhq.ecom.LightspeedEComClient#DATETIME_FORMAT}, like
+ * <code>2018-06-12T09:14:27+02:00</code>) directly from and to characters.<br>
+ * Only the fixed form is handled here, the callers fall back to {@link DateTimeFormatter#ISO_ZONED_DATE_TIME} and
+ * {@link DateTimeFormatter#ISO_OFFSET_DATE_TIME} for the rest, so every value is read and written as by the formatters.
+ * The offsets of whole quarter hours are cached.
+ */
+public final class DateTimeCodec {
+
+    /**
+     * Max length of a formatted timestamp, <code>yyyy-MM-ddTHH:mm:ss+HH:MM</code>.
+     */
+    public static final int MAX_LENGTH = 25;
+
+    private static final int MAX_OFFSET_QUARTERS = 18 * 4;
+
+    private static final ZoneOffset[] OFFSETS = new ZoneOffset[MAX_OFFSET_QUARTERS * 2 + 1];
+
+    private DateTimeCodec() {
+    }
+
+    /**
+     * Reads <code>yyyy-MM-ddTHH:mm:ss[.fraction](Z|+HH:MM|+HHMM)</code>, surrounding whitespace is ignored. The
+     * formatter does not read +HHMM, it is the offset of the pattern of DATETIME_FORMAT.
+     *
+     * @param zone zone to adjust the time to, null to keep the offset of the text as zone
+     * @return the time, null if the text is not in the fixed form or not a valid time
+     */
+    public static ZonedDateTime parse(char[] text, int offset, int length, ZoneId zone) {
+        int start = offset;
+        int end = offset + length;
+        while (start < end && text[start] <= ' ') {
+            start++;
+        }
+        while (end > start && text[end - 1] <= ' ') {
+            end--;
+        }
+        //2018-06-12T09:14:27+02:00
+        //0123456789012345678901234
+        if (end - start < 20 || text[start + 4] != '-' || text[start + 7] != '-' || text[start + 10] != 'T'
+                || text[start + 13] != ':' || text[start + 16] != ':') {
+            return null;
+        }
+        int year = digits(text, start, 4);
+        int month = digits(text, start + 5, 2);
+        int day = digits(text, start + 8, 2);
+        int hour = digits(text, start + 11, 2);
+        int minute = digits(text, start + 14, 2);
+        int second = digits(text, start + 17, 2);
+        if (year < 0 || month < 0 || day < 0 || hour < 0 || minute < 0 || second < 0) {
+            return null;
+        }
+        int i = start + 19;
+        int nanos = 0;
+        if (text[i] == '.') {
+            int digits = 0;
+            for (i++; i < end && text[i] >= '0' && text[i] <= '9' && digits < 9; i++, digits++) {
+                nanos = nanos * 10 + (text[i] - '0');
+            }
+            if (digits == 0) {
+                return null;
+            }
+            for (; digits < 9; digits++) {
+                nanos *= 10;
+            }
+        }
+        int offsetSeconds = offsetSeconds(text, i, end);
+        if (offsetSeconds == Integer.MIN_VALUE) {
+            return null;
+        }
+        try {
+            LocalDateTime dateTime = LocalDateTime.of(year, month, day, hour, minute, second, nanos);
+            ZoneOffset zoneOffset = offset(offsetSeconds);
+            return zone == null ? ZonedDateTime.of(dateTime, zoneOffset) : ZonedDateTime.ofInstant(dateTime, zoneOffset, zone);
+        } catch (DateTimeException ex) {
+            return null;//like 2018-02-30, the formatter reports it
+        }
+    }
+
+    /**
+     * @return seconds of Z, +HH:MM or +HHMM from start up to end, {@link Integer#MIN_VALUE} if it is none of them
+     */
+    private static int offsetSeconds(char[] text, int start, int end) {
+        int length = end - start;
+        if (length == 1 && text[start] == 'Z') {
+            return 0;
+        }
+        if (length != 5 && length != 6 || text[start] != '+' && text[start] != '-') {
+            return Integer.MIN_VALUE;
+        }
+        int hours = digits(text, start + 1, 2);
+        int minutes;
+        if (length == 5) {
+            minutes = digits(text, start + 3, 2);
+        } else {
+            minutes = text[start + 3] == ':' ? digits(text, start + 4, 2) : -1;
+        }
+        if (hours < 0 || hours > 18 || minutes < 0 || minutes > 59) {
+            return Integer.MIN_VALUE;
+        }
+        int seconds = hours * 3600 + minutes * 60;
+        return text[start] == '-' ? -seconds : seconds;
+    }
+
+    private static int digits(char[] text, int offset, int count) {
+        int number = 0;
+        for (int i = offset; i < offset + count; i++) {
+            char c = text[i];
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            number = number * 10 + (c - '0');
+        }
+        return number;
+    }
+
+    /**
+     * @return the offset, cached for whole quarter hours
+     * @throws DateTimeException if the offset is out of range
+     */
+    public static ZoneOffset offset(int totalSeconds) {
+        if (totalSeconds % 900 != 0 || Math.abs(totalSeconds / 900) > MAX_OFFSET_QUARTERS) {
+            return ZoneOffset.ofTotalSeconds(totalSeconds);
+        }
+        int index = totalSeconds / 900 + MAX_OFFSET_QUARTERS;
+        ZoneOffset offset = OFFSETS[index];
+        if (offset == null) {
+            //racy, but every thread stores an equal offset
+            offset = ZoneOffset.ofTotalSeconds(totalSeconds);
+            OFFSETS[index] = offset;
+        }
+        return offset;
+    }
+
+    /**
+     * Writes <code>yyyy-MM-ddTHH:mm:ss+HH:MM</code>, Z for UTC, as {@link DateTimeFormatter#ISO_OFFSET_DATE_TIME} does.
+     *
+     * @param buffer buffer of at least {@link #MAX_LENGTH}
+     * @return number of characters written, -1 if the time is not in the fixed form (fraction of a second, offset
+     * with seconds or year outside 0-9999)
+     */
+    public static int format(ZonedDateTime value, char[] buffer) {
+        int year = value.getYear();
+        int offsetSeconds = value.getOffset().getTotalSeconds();
+        if (value.getNano() != 0 || offsetSeconds % 60 != 0 || year < 0 || year > 9999) {
+            return -1;
+        }
+        put(buffer, 0, year, 4);
+        buffer[4] = '-';
+        put(buffer, 5, value.getMonthValue(), 2);
+        buffer[7] = '-';
+        put(buffer, 8, value.getDayOfMonth(), 2);
+        buffer[10] = 'T';
+        put(buffer, 11, value.getHour(), 2);
+        buffer[13] = ':';
+        put(buffer, 14, value.getMinute(), 2);
+        buffer[16] = ':';
+        put(buffer, 17, value.getSecond(), 2);
+        if (offsetSeconds == 0) {
+            buffer[19] = 'Z';
+            return 20;
+        }
+        int offsetMinutes = Math.abs(offsetSeconds) / 60;
+        buffer[19] = offsetSeconds < 0 ? '-' : '+';
+        put(buffer, 20, offsetMinutes / 60, 2);
+        buffer[22] = ':';
+        put(buffer, 23, offsetMinutes % 60, 2);
+        return MAX_LENGTH;
+    }
+
+    private static void put(char[] buffer, int offset, int number, int count) {
+        for (int i = offset + count - 1; i >= offset; i--) {
+            buffer[i] = (char) ('0' + number % 10);
+            number /= 10;
+        }
+    }
+}
@@ -1,47 +1,42 @@
 package com.lightspeedhq.ecom.jackson;
 
-import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.*;
 import com.fasterxml.jackson.databind.deser.ContextualDeserializer;
-import com.fasterxml.jackson.datatype.jsr310.JSR310Module;
 import java.io.IOException;
-import java.util.TimeZone;
 
 /**
- * De-serialize a non-boolean value to null when it is false.
+ * De-serialize a non-boolean value to null when it is false.<br>
+ * Other values are read by the deserializer the mapper has for the type of the property, the current token tells
+ * which one it is.
  *
  * @author stevensnoeijen
  */
 public class FalseNullDeserializer extends JsonDeserializer<Object> implements ContextualDeserializer {
 
-    private final ObjectMapper om;
-
-    private JavaType type;
+    private final JsonDeserializer<Object> deserializer;
 
     public FalseNullDeserializer() {
-        om = new ObjectMapper();
-        om.registerModule(new JSR310Module());
-        om.setTimeZone(TimeZone.getTimeZone("UTC"));
+        this(null);
+    }
+
+    private FalseNullDeserializer(JsonDeserializer<Object> deserializer) {
+        this.deserializer = deserializer;
     }
 
     @Override
     public JsonDeserializer<?> createContextual(DeserializationContext ctxt, BeanProperty property) throws JsonMappingException {
-        type = property.getType();
-        return this;
+        return new FalseNullDeserializer(ctxt.findContextualValueDeserializer(property.getType(), property));
     }
 
     @Override
     public Object deserialize(JsonParser jp, DeserializationContext ctxt) throws IOException, JsonProcessingException {
-        try {
-            //try boolean
-            jp.getBooleanValue();//false
-            return null;
-        } catch (JsonParseException ex) {
-            //if its an object it will throw
-            //read with default deserializer
-            return om.readValue(jp, type);
+        JsonToken token = jp.getCurrentToken();
+        if (token == JsonToken.VALUE_FALSE || token == JsonToken.VALUE_TRUE) {
+            return null;//false
         }
+        return deserializer.deserialize(jp, ctxt);
     }
 }
@@ -0,0 +1,98 @@
+package com.lightspeedhq.ecom.jackson;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * Reads the elements of a list response like {"orders":[{...},{...}]} one by one, without building the list.<br>
+ * Every element is read with the {@link ObjectMapper} of the client (without unwrapping a root value) and handed over
+ * as soon as it is parsed, so only one element is held at a time. A list that is false or null has no elements.
+ */
+public class JsonListReader<T> implements Iterator<T>, Closeable {
+
+    private final JsonParser parser;
+
+    private final ObjectReader reader;
+
+    private JsonToken next;
+
+    /**
+     * @param om object mapper of the client
+     * @param type type of the elements
+     * @param in body of the response, closed by {@link #close()}
+     * @throws IOException if the body is not a list response
+     */
+    public JsonListReader(ObjectMapper om, Class<T> type, InputStream in) throws IOException {
+        this.reader = om.reader(type).without(DeserializationFeature.UNWRAP_ROOT_VALUE);
+        this.parser = om.getFactory().createParser(in);
+        if (parser.nextToken() != JsonToken.START_OBJECT || parser.nextToken() != JsonToken.FIELD_NAME) {
+            throw JsonMappingException.from(parser, "Expected {\"name\":[...]} for list of " + type.getName());
+        }
+        JsonToken list = parser.nextToken();
+        if (list == JsonToken.START_ARRAY) {
+            next = parser.nextToken();
+        } else if (list == JsonToken.VALUE_FALSE || list == JsonToken.VALUE_NULL) {
+            next = JsonToken.END_ARRAY;//no elements
+        } else {
+            throw JsonMappingException.from(parser, "Expected array for list of " + type.getName());
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return next != JsonToken.END_ARRAY;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        try {
+            T element = reader.readValue(parser);
+            next = parser.nextToken();
+            return element;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Hands every element to the action, exceptions of the action are thrown as they are.
+     *
+     * @return number of elements
+     * @throws IOException if the elements could not be read
+     */
+    public int forEach(Consumer<? super T> action) throws IOException {
+        int count = 0;
+        while (true) {
+            T element;
+            try {
+                if (!hasNext()) {
+                    return count;
+                }
+                element = next();
+            } catch (UncheckedIOException ex) {
+                throw ex.getCause();
+            }
+            action.accept(element);
+            count++;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+}
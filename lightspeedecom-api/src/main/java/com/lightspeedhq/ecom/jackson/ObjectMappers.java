@@ -0,0 +1,108 @@
+package com.lightspeedhq.ecom.jackson;
+
+import com.fasterxml.jackson.core.Version;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.datatype.jsr310.JSR310Module;
+import com.lightspeedhq.ecom.LightspeedEComClient;
+import com.lightspeedhq.ecom.codegen.CodecModule;
+import com.lightspeedhq.ecom.domain.LightspeedEComError;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TimeZone;
+import lombok.extern.java.Log;
+
+/**
+ * The {@link ObjectMapper} of the clients, the error decoder and the {@link com.lightspeedhq.ecom.WebhookEventHandler}.<br>
+ * Mappers cache the (de)serializer of every type they have seen, so they are expensive to create and the first
+ * (de)serialization of a type is slow. The shared mapper is created once and warmed up for all types of the
+ * {@link LightspeedEComClient}, the deserializers of this package use the (de)serializers of the mapper they are
+ * called by instead of their own mapper.
+ */
+@Log
+public final class ObjectMappers {
+
+    private ObjectMappers() {
+    }
+
+    /**
+     * @return modules registered on every mapper, in order of registration (a later module overrides an earlier one)
+     */
+    public static List<Module> modules() {
+        return Arrays.asList(new JSR310Module(),//for using zoneddatetime JsonFormat
+                new SimpleModule("LightspeedEComDateTime", Version.unknownVersion())
+                        .addDeserializer(ZonedDateTime.class, new ZonedDateTimeDeserializer())
+                        .addSerializer(ZonedDateTime.class, new ZonedDateTimeSerializer()),
+                new CodecModule());
+    }
+
+    /**
+     * @return new mapper with (un)wrapping of root values and the {@link #modules()}, times in UTC
+     */
+    public static ObjectMapper create() {
+        ObjectMapper om = new ObjectMapper();
+        om.configure(SerializationFeature.WRAP_ROOT_VALUE, true);
+        om.configure(DeserializationFeature.UNWRAP_ROOT_VALUE, true);
+        om.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        modules().forEach(om::registerModule);
+        om.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return om;
+    }
+
+    /**
+     * @return mapper shared by all clients, warmed up for the {@link LightspeedEComClient} on first use, do not change
+     * its configuration
+     */
+    public static ObjectMapper shared() {
+        return Shared.INSTANCE;
+    }
+
+    /**
+     * Creates and caches the deserializers of the return types and the serializers of the parameter types of the
+     * methods of the apis.
+     *
+     * @param om mapper to warm up
+     * @param apis feign interfaces, like LightspeedEComClient.class
+     * @return the mapper
+     */
+    public static ObjectMapper warmUp(ObjectMapper om, Class<?>... apis) {
+        long start = System.nanoTime();
+        for (Class<?> api : apis) {
+            for (Method method : api.getMethods()) {
+                if (method.isDefault() || Modifier.isStatic(method.getModifiers())) {
+                    continue;//not a request
+                }
+                warmUpDeserializer(om, om.getTypeFactory().constructType(method.getGenericReturnType()));
+                for (Class<?> parameter : method.getParameterTypes()) {
+                    if (!parameter.isPrimitive() && !om.canSerialize(parameter)) {
+                        log.fine("No serializer for " + parameter);
+                    }
+                }
+            }
+        }
+        warmUpDeserializer(om, om.getTypeFactory().constructType(LightspeedEComError.class));
+        log.fine("Warmed up object mapper in " + (System.nanoTime() - start) / 1_000_000 + "ms");
+        return om;
+    }
+
+    private static void warmUpDeserializer(ObjectMapper om, JavaType type) {
+        if (type.isPrimitive() || type.getRawClass().getName().startsWith("feign.")) {
+            return;
+        }
+        if (!om.canDeserialize(type)) {
+            log.fine("No deserializer for " + type);
+        }
+    }
+
+    private static class Shared {
+
+        private static final ObjectMapper INSTANCE = warmUp(create(), LightspeedEComClient.class);
+    }
+}
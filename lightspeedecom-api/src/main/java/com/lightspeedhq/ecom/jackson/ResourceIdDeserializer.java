@@ -2,42 +2,90 @@ package com.lightspeedhq.ecom.jackson;
 
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.BeanProperty;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JSR310Module;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.deser.ContextualDeserializer;
+import com.lightspeedhq.ecom.domain.Resource;
 import java.io.IOException;
-import java.util.TimeZone;
 
 /**
- * Get id from resource or set to {@link VALUE_FALSE} if it is "false".
+ * Get id from resource or set to {@link VALUE_FALSE} if it is "false".<br>
+ * The tokens are read up to resource.id, everything else is skipped. A property of type {@link Resource} gets the
+ * id, url and link (or null if it is "false").<br>
+ * The id alone (and a Resource as id, url and link) is read as well, that is how the mapper writes the property, for
+ * objects that are written and read back like in {@link com.lightspeedhq.ecom.mirror.MirrorStore}.
  *
  * @author stevensnoeijen
  */
-public class ResourceIdDeserializer extends JsonDeserializer<Object> {
-
-    private final ObjectMapper om;
+public class ResourceIdDeserializer extends JsonDeserializer<Object> implements ContextualDeserializer {
 
     public static final int VALUE_FALSE = -1;
 
+    /**
+     * true to deserialize to a {@link Resource}, false to the id
+     */
+    private final boolean resource;
+
     public ResourceIdDeserializer() {
-        om = new ObjectMapper();
-        om.registerModule(new JSR310Module());
-        om.setTimeZone(TimeZone.getTimeZone("UTC"));
+        this(false);
+    }
+
+    private ResourceIdDeserializer(boolean resource) {
+        this.resource = resource;
+    }
+
+    @Override
+    public JsonDeserializer<?> createContextual(DeserializationContext ctxt, BeanProperty property) throws JsonMappingException {
+        boolean resourceProperty = property != null && Resource.class.isAssignableFrom(property.getType().getRawClass());
+        return resourceProperty == resource ? this : new ResourceIdDeserializer(resourceProperty);
     }
 
     @Override
     public Object deserialize(JsonParser jp, DeserializationContext ctxt) throws IOException, JsonProcessingException {
-        JsonNode node = om.readTree(jp);
-        if (node.isBoolean()) {
+        JsonToken token = jp.getCurrentToken();
+        if (token == JsonToken.VALUE_FALSE || token == JsonToken.VALUE_TRUE) {
             //is false = none set
-            return VALUE_FALSE;
+            return resource ? null : VALUE_FALSE;
+        }
+        if (token == JsonToken.VALUE_NUMBER_INT && !resource) {
+            return jp.getIntValue();
+        }
+        if (token != JsonToken.START_OBJECT) {
+            throw ctxt.mappingException("Expected false or a resource object, got " + token);
+        }
+        int id = VALUE_FALSE;
+        String url = null;
+        String link = null;
+        while (jp.nextToken() == JsonToken.FIELD_NAME) {
+            String name = jp.getCurrentName();
+            if (jp.nextToken() == JsonToken.START_OBJECT && "resource".equals(name)) {
+                while (jp.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = jp.getCurrentName();
+                    jp.nextToken();
+                    if ("id".equals(field)) {
+                        id = jp.getValueAsInt(VALUE_FALSE);
+                    } else if (resource && "url".equals(field)) {
+                        url = jp.getValueAsString();
+                    } else if (resource && "link".equals(field)) {
+                        link = jp.getValueAsString();
+                    } else {
+                        jp.skipChildren();
+                    }
+                }
+            } else if ("id".equals(name)) {
+                id = jp.getValueAsInt(VALUE_FALSE);
+            } else if (resource && "url".equals(name)) {
+                url = jp.getValueAsString();
+            } else if (resource && "link".equals(name)) {
+                link = jp.getValueAsString();
+            } else {
+                jp.skipChildren();
+            }
         }
-        JsonNode resourceNode = node.get("resource");
-        JsonNode idNode = resourceNode.get("id");
-        int id = idNode.asInt();
-        return id;
+        return resource ? new Resource(id, url, link) : id;
     }
 
 }
@@ -0,0 +1,74 @@
+package com.lightspeedhq.ecom.jackson;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.datatype.jsr310.deser.InstantDeserializer;
+import java.io.IOException;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.TimeZone;
+
+/**
+ * Deserializes a {@link ZonedDateTime} from the characters of the parser with {@link DateTimeCodec}, instead of
+ * parsing it with {@link DateTimeFormatter#ISO_ZONED_DATE_TIME} as the JSR310Module does. The result is the same:
+ * the time is adjusted to the time zone of the mapper (unless ADJUST_DATES_TO_CONTEXT_TIME_ZONE is disabled), an
+ * empty string is null, other forms and numbers are read by the deserializer of the JSR310Module.
+ */
+public class ZonedDateTimeDeserializer extends StdScalarDeserializer<ZonedDateTime> {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Time zone of the mapper and its ZoneId, replaced as a whole so readers never see a mixed pair.
+     */
+    private transient volatile Zone last;
+
+    public ZonedDateTimeDeserializer() {
+        super(ZonedDateTime.class);
+    }
+
+    @Override
+    public ZonedDateTime deserialize(JsonParser jp, DeserializationContext ctxt) throws IOException {
+        if (jp.getCurrentToken() != JsonToken.VALUE_STRING) {
+            return InstantDeserializer.ZONED_DATE_TIME.deserialize(jp, ctxt);
+        }
+        ZoneId zone = ctxt.isEnabled(DeserializationFeature.ADJUST_DATES_TO_CONTEXT_TIME_ZONE) ? zone(ctxt.getTimeZone()) : null;
+        ZonedDateTime value = DateTimeCodec.parse(jp.getTextCharacters(), jp.getTextOffset(), jp.getTextLength(), zone);
+        if (value != null) {
+            return value;
+        }
+        String text = jp.getText().trim();
+        if (text.isEmpty()) {
+            return null;
+        }
+        value = ZonedDateTime.parse(text, DateTimeFormatter.ISO_ZONED_DATE_TIME);
+        return zone == null ? value : value.withZoneSameInstant(zone);
+    }
+
+    /**
+     * @return ZoneId of the time zone, TimeZone.toZoneId() looks it up every time
+     */
+    private ZoneId zone(TimeZone timeZone) {
+        Zone cached = last;
+        if (cached == null || cached.timeZone != timeZone) {
+            cached = new Zone(timeZone, timeZone.toZoneId());
+            last = cached;
+        }
+        return cached.zoneId;
+    }
+
+    private static final class Zone {
+
+        private final TimeZone timeZone;
+        private final ZoneId zoneId;
+
+        private Zone(TimeZone timeZone, ZoneId zoneId) {
+            this.timeZone = timeZone;
+            this.zoneId = zoneId;
+        }
+    }
+}
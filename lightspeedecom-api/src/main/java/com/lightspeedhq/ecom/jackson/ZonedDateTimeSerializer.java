@@ -0,0 +1,37 @@
+package com.lightspeedhq.ecom.jackson;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.datatype.jsr310.ser.InstantSerializer;
+import java.io.IOException;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Serializes a {@link ZonedDateTime} as the timestamp of the JSR310Module when WRITE_DATES_AS_TIMESTAMPS is enabled
+ * (the default), otherwise as text in the format of the api, like <code>2018-06-12T09:14:27+02:00</code>, written by
+ * {@link DateTimeCodec} ({@link DateTimeFormatter#ISO_OFFSET_DATE_TIME} for a time with a fraction of a second).
+ */
+public class ZonedDateTimeSerializer extends StdSerializer<ZonedDateTime> {
+
+    public ZonedDateTimeSerializer() {
+        super(ZonedDateTime.class);
+    }
+
+    @Override
+    public void serialize(ZonedDateTime value, JsonGenerator jgen, SerializerProvider provider) throws IOException {
+        if (provider.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)) {
+            InstantSerializer.ZONED_DATE_TIME.serialize(value, jgen, provider);
+            return;
+        }
+        char[] buffer = new char[DateTimeCodec.MAX_LENGTH];
+        int length = DateTimeCodec.format(value, buffer);
+        if (length < 0) {
+            jgen.writeString(DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(value));
+        } else {
+            jgen.writeString(buffer, 0, length);
+        }
+    }
+}
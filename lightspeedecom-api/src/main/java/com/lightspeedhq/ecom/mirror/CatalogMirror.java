@@ -0,0 +1,89 @@
+package com.lightspeedhq.ecom.mirror;
+
+import com.lightspeedhq.ecom.WebhookEventHandler;
+import com.lightspeedhq.ecom.domain.Brand;
+import com.lightspeedhq.ecom.domain.Category;
+import com.lightspeedhq.ecom.domain.Product;
+import com.lightspeedhq.ecom.domain.Supplier;
+import com.lightspeedhq.ecom.domain.Variant;
+import com.lightspeedhq.ecom.domain.Webhook;
+import com.lightspeedhq.ecom.domain.WebhookEvent;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.function.ToIntFunction;
+import lombok.Getter;
+
+/**
+ * Local copy of the catalog of a shop: products, variants, categories, brands and suppliers, each in a
+ * {@link MirrorStore} in a subdirectory.<br>
+ * Fill it with the sinks (from a full or {@link com.lightspeedhq.ecom.sync.DeltaSync}) and keep products and variants
+ * up to date with webhooks through {@link #listen(WebhookEventHandler)}.
+ *
+ * <pre>
+ * CatalogMirror mirror = new CatalogMirror(Paths.get("/var/lib/lightspeedecom/yourshop"));
+ * deltaSync.sync("products", client::getProducts, Product::getUpdatedAt, mirror.getProducts().sink());
+ * mirror.listen(webhookEventHandler);
+ * Product product = mirror.getProducts().get(productId);
+ * </pre>
+ */
+public class CatalogMirror implements Closeable {
+
+    @Getter
+    private final MirrorStore<Product> products;
+
+    @Getter
+    private final MirrorStore<Variant> variants;
+
+    @Getter
+    private final MirrorStore<Category> categories;
+
+    @Getter
+    private final MirrorStore<Brand> brands;
+
+    @Getter
+    private final MirrorStore<Supplier> suppliers;
+
+    /**
+     * @param directory directory of the stores, created if it doesn't exist
+     * @throws IOException if the stores could not be opened
+     */
+    public CatalogMirror(Path directory) throws IOException {
+        products = new MirrorStore<>(directory.resolve("products"), Product.class, Product::getId);
+        variants = new MirrorStore<>(directory.resolve("variants"), Variant.class, Variant::getId);
+        categories = new MirrorStore<>(directory.resolve("categories"), Category.class, Category::getId);
+        brands = new MirrorStore<>(directory.resolve("brands"), Brand.class, Brand::getId);
+        suppliers = new MirrorStore<>(directory.resolve("suppliers"), Supplier.class, Supplier::getId);
+    }
+
+    /**
+     * Keeps the products and variants up to date with the webhook events, the other resources have no webhooks.
+     *
+     * @param handler handler the webhooks of the shop are handled with
+     */
+    public void listen(WebhookEventHandler handler) {
+        listen(handler, "products", products, Product::getId);
+        listen(handler, "variants", variants, Variant::getId);
+    }
+
+    private static <T> void listen(WebhookEventHandler handler, String group, MirrorStore<T> store, ToIntFunction<T> idOf) {
+        for (Webhook.ItemAction action : new Webhook.ItemAction[]{Webhook.ItemAction.CREATED, Webhook.ItemAction.UPDATED, Webhook.ItemAction.DELETED}) {
+            handler.<T>addListener(Webhook.EventDescriptor.fromString(group + "/" + action.toJson()), (WebhookEvent<T> event) -> {
+                if (event.getAction() == Webhook.ItemAction.DELETED) {
+                    store.remove(idOf.applyAsInt(event.getObject()));
+                } else {
+                    store.put(event.getObject());
+                }
+            });
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        products.close();
+        variants.close();
+        categories.close();
+        brands.close();
+        suppliers.close();
+    }
+}
@@ -0,0 +1,403 @@
+package com.lightspeedhq.ecom.mirror;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import com.lightspeedhq.ecom.jackson.ObjectMappers;
+import com.lightspeedhq.ecom.sync.SyncSink;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.ToIntFunction;
+import lombok.Getter;
+
+/**
+ * Keeps objects by id on disk in memory-mapped segments, for lookups without requests.<br>
+ * Records are appended to the current segment as [id][length][object as json], a removal is appended as a record
+ * with length -1. An index of id to position is built by reading the segments when the store is opened, so a lookup
+ * is an index lookup plus reading the object from the mapped segment. {@link #compact()} rewrites the live
+ * records when most of the segments are replaced or removed records.<br>
+ * One store per directory, the objects are stored as json with the mapper of the client (without root name). Ids are not 0, a header with id 0 is the
+ * end of the records of a segment.
+ *
+ * @param <T> type of the objects
+ */
+public class MirrorStore<T> implements Closeable {
+
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    private static final int HEADER = 8;
+
+    private static final int REMOVED = -1;
+
+    private static final String COMPACTING = "compacting";
+
+    /**
+     * file in the compacting directory with the number of compacted segments, written when they are complete
+     */
+    private static final String COMPACTED = "compacted";
+
+    private final Path directory;
+
+    private final Class<T> type;
+
+    private final ToIntFunction<? super T> idOf;
+
+    private final int segmentSize;
+
+    private final ObjectMapper mapper;
+
+    private final ObjectReader reader;
+
+    private final ObjectWriter writer;
+
+    /**
+     * segments and their index, replaced as a whole by {@link #compact()}
+     */
+    private volatile Snapshot snapshot = new Snapshot(new CopyOnWriteArrayList<>(), new ConcurrentHashMap<>());
+
+    /**
+     * bytes of the records that are replaced or removed
+     */
+    @Getter
+    private volatile long garbage = 0;
+
+    /**
+     * @param directory directory of the segments, created if it doesn't exist
+     * @param type type of the objects
+     * @param idOf id of an object, like Product::getId
+     * @throws IOException if the segments could not be opened
+     */
+    public MirrorStore(Path directory, Class<T> type, ToIntFunction<? super T> idOf) throws IOException {
+        this(directory, type, idOf, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * @param directory directory of the segments, created if it doesn't exist
+     * @param type type of the objects
+     * @param idOf id of an object, like Product::getId
+     * @param segmentSize size of a segment in bytes, the max size of an object
+     * @throws IOException if the segments could not be opened
+     */
+    public MirrorStore(Path directory, Class<T> type, ToIntFunction<? super T> idOf, int segmentSize) throws IOException {
+        this(directory, type, idOf, segmentSize, ObjectMappers.shared());
+    }
+
+    /**
+     * @param directory directory of the segments, created if it doesn't exist
+     * @param type type of the objects
+     * @param idOf id of an object, like Product::getId
+     * @param segmentSize size of a segment in bytes, the max size of an object
+     * @param mapper mapper that writes and reads the objects, see {@link ObjectMappers#create()}
+     * @throws IOException if the segments could not be opened
+     */
+    public MirrorStore(Path directory, Class<T> type, ToIntFunction<? super T> idOf, int segmentSize, ObjectMapper mapper) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.type = type;
+        this.idOf = idOf;
+        this.segmentSize = segmentSize;
+        this.mapper = mapper;
+        this.reader = mapper.reader(type).without(DeserializationFeature.UNWRAP_ROOT_VALUE);
+        this.writer = mapper.writerWithType(type).without(SerializationFeature.WRAP_ROOT_VALUE);
+        recover();
+        List<Segment> segments = snapshot.segments;
+        for (Path file : segmentFiles(directory)) {
+            segments.add(new Segment(file, segmentSize));
+            load(snapshot, segments.size() - 1);
+        }
+        if (segments.isEmpty()) {
+            segments.add(new Segment(segmentFile(0), segmentSize));
+        }
+    }
+
+    private static List<Path> segmentFiles(Path directory) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "segment-*.dat")) {
+            stream.forEach(files::add);
+        }
+        files.sort(null);
+        return files;
+    }
+
+    private Path segmentFile(int number) {
+        return directory.resolve(String.format("segment-%06d.dat", number));
+    }
+
+    /**
+     * Finishes or drops a compaction that was interrupted. The compacted segments replace the old ones only when all
+     * of them were written, the old segments beyond them are deleted last.
+     */
+    private void recover() throws IOException {
+        Path compacting = directory.resolve(COMPACTING);
+        if (!Files.isDirectory(compacting)) {
+            return;
+        }
+        Path compacted = compacting.resolve(COMPACTED);
+        if (Files.exists(compacted)) {
+            int count = Integer.parseInt(new String(Files.readAllBytes(compacted), StandardCharsets.US_ASCII).trim());
+            for (Path file : segmentFiles(compacting)) {
+                Files.move(file, directory.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            List<Path> files = segmentFiles(directory);
+            for (Path file : files.subList(Math.min(count, files.size()), files.size())) {
+                Files.delete(file);
+            }
+        }
+        delete(compacting);
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path file : stream) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    /**
+     * Adds the records of a segment to the index, up to the first header that is not a complete record.
+     */
+    private void load(Snapshot snapshot, int number) {
+        Segment segment = snapshot.segments.get(number);
+        MappedByteBuffer buffer = segment.buffer;
+        int position = 0;
+        while (position + HEADER <= segmentSize) {
+            int id = buffer.getInt(position);
+            int length = buffer.getInt(position + 4);
+            if (id == 0 || length < REMOVED || length > segmentSize - position - HEADER) {
+                break;//end of the records, or a record that was not completely written
+            }
+            Long previous = length == REMOVED ? snapshot.index.remove(id) : snapshot.index.put(id, ((long) number << 32) | position);
+            if (previous != null) {
+                garbage += recordSize(snapshot.segments, previous);
+            }
+            if (length == REMOVED) {
+                garbage += HEADER;
+            }
+            position += HEADER + Math.max(length, 0);
+        }
+        segment.position = position;
+    }
+
+    private static int recordSize(List<Segment> segments, long location) {
+        return HEADER + segments.get((int) (location >>> 32)).buffer.getInt((int) location + 4);
+    }
+
+    /**
+     * @param id id of the object
+     * @return the object, null if it is not stored
+     */
+    public T get(int id) {
+        Snapshot current = snapshot;
+        Long location = current.index.get(id);
+        if (location == null) {
+            return null;
+        }
+        ByteBuffer buffer = current.segments.get((int) (location >>> 32)).buffer.duplicate();
+        int position = (int) (long) location;
+        buffer.limit(position + HEADER + buffer.getInt(position + 4));
+        buffer.position(position + HEADER);
+        try {
+            return reader.readValue(new ByteBufferBackedInputStream(buffer));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not read " + type.getSimpleName() + " " + id, ex);
+        }
+    }
+
+    /**
+     * @param id id of the object
+     * @return true if the object is stored
+     */
+    public boolean contains(int id) {
+        return snapshot.index.containsKey(id);
+    }
+
+    /**
+     * @return number of stored objects
+     */
+    public int size() {
+        return snapshot.index.size();
+    }
+
+    /**
+     * Stores the object, replacing the one with the same id.
+     *
+     * @param object object to store
+     * @throws IllegalArgumentException if the id of the object is 0
+     */
+    public void put(T object) {
+        int id = idOf.applyAsInt(object);
+        if (id == 0) {
+            throw new IllegalArgumentException(type.getSimpleName() + " without id");
+        }
+        byte[] bytes;
+        try {
+            bytes = writer.writeValueAsBytes(object);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not write " + type.getSimpleName() + " " + id, ex);
+        }
+        append(id, bytes);
+    }
+
+    /**
+     * @return sink that stores the received objects, for {@link com.lightspeedhq.ecom.sync.DeltaSync}
+     */
+    public SyncSink<T> sink() {
+        return this::put;
+    }
+
+    /**
+     * @param id id of the object to remove
+     */
+    public void remove(int id) {
+        if (contains(id)) {
+            append(id, null);
+        }
+    }
+
+    private synchronized void append(int id, byte[] bytes) {
+        int length = bytes != null ? bytes.length : REMOVED;
+        int size = HEADER + Math.max(length, 0);
+        if (size > segmentSize) {
+            throw new IllegalArgumentException(type.getSimpleName() + " " + id + " is larger than a segment");
+        }
+        List<Segment> segments = snapshot.segments;
+        Map<Integer, Long> index = snapshot.index;
+        Segment segment = segments.get(segments.size() - 1);
+        if (segment.position + size > segmentSize) {
+            segment.buffer.force();
+            try {
+                segment = new Segment(segmentFile(segments.size()), segmentSize);
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Could not create segment", ex);
+            }
+            segments.add(segment);
+        }
+        int position = segment.position;
+        MappedByteBuffer buffer = segment.buffer;
+        if (bytes != null) {
+            ByteBuffer target = buffer.duplicate();
+            target.position(position + HEADER);
+            target.put(bytes);
+        }
+        buffer.putInt(position + 4, length);
+        buffer.putInt(position, id);//written last, marks the record as complete
+        segment.position = position + size;
+
+        Long previous = bytes != null ? index.put(id, ((long) (segments.size() - 1) << 32) | position) : index.remove(id);
+        if (previous != null) {
+            garbage += recordSize(segments, previous);
+        }
+        if (bytes == null) {
+            garbage += HEADER;
+        }
+    }
+
+    /**
+     * Rewrites the live records into new segments that replace the old ones.<br>
+     * The new segments are written to a separate directory and marked complete before they replace the old segments,
+     * when the store is opened after a crash the compaction is finished or dropped, see {@link #recover()}.
+     *
+     * @throws IOException if the segments could not be rewritten
+     */
+    public synchronized void compact() throws IOException {
+        Path compacting = directory.resolve(COMPACTING);
+        Snapshot old = snapshot;
+        if (Files.isDirectory(compacting)) {
+            delete(compacting);//left by a compaction that failed before it was complete
+        }
+        int count;
+        try (MirrorStore<T> compacted = new MirrorStore<>(compacting, type, idOf, segmentSize, mapper)) {
+            for (Integer id : old.index.keySet()) {
+                compacted.put(get(id));
+            }
+            count = compacted.snapshot.segments.size();
+        }
+        try (FileChannel marker = FileChannel.open(compacting.resolve(COMPACTED), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            marker.write(ByteBuffer.wrap(Integer.toString(count).getBytes(StandardCharsets.US_ASCII)));
+            marker.force(true);
+        }
+        //replaces the old files, their mappings stay valid for lookups that are running
+        recover();
+        Snapshot moved = new Snapshot(new CopyOnWriteArrayList<>(), new ConcurrentHashMap<>());
+        for (Path file : segmentFiles(directory)) {
+            moved.segments.add(new Segment(file, segmentSize));
+        }
+        garbage = 0;
+        for (int i = 0; i < moved.segments.size(); i++) {
+            load(moved, i);
+        }
+        snapshot = moved;
+        for (Segment segment : old.segments) {
+            segment.close();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        for (Segment segment : snapshot.segments) {
+            segment.buffer.force();
+            segment.close();
+        }
+    }
+
+    /**
+     * Segments with the index of their records, appended to together.
+     */
+    private static class Snapshot {
+
+        private final List<Segment> segments;
+
+        /**
+         * id to segment number (high 32 bits) and position of the record (low 32 bits)
+         */
+        private final Map<Integer, Long> index;
+
+        Snapshot(List<Segment> segments, Map<Integer, Long> index) {
+            this.segments = segments;
+            this.index = index;
+        }
+    }
+
+    private static class Segment {
+
+        private final Path file;
+
+        private final FileChannel channel;
+
+        private final MappedByteBuffer buffer;
+
+        /**
+         * position of the next record
+         */
+        private int position = 0;
+
+        Segment(Path file, int size) throws IOException {
+            this.file = file;
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+
+        void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.lightspeedhq.ecom.sync;
+
+import com.lightspeedhq.ecom.PageIterator;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import lombok.extern.java.Log;
+
+/**
+ * Synchronizes resources incrementally: only the records updated since the high-water mark of the resource are
+ * requested (with the 'updated_at_min' filter) and handed to a {@link SyncSink}.<br>
+ * The new high-water mark is the latest updatedAt that was received, but never later than the start of the
+ * synchronization, so records that change while paging are requested again next time. The start is taken from the
+ * local clock and updatedAt is set by the server, the overlap is subtracted from the start to cover the skew between
+ * the two clocks. The mark is only stored when all records are handed to the sink, a failed synchronization starts
+ * again from the old mark. Records at the mark are received again, the sink must be idempotent.
+ *
+ * <pre>
+ * DeltaSync deltaSync = new DeltaSync(new FileHighWaterMarkStore(Paths.get("sync.properties")));
+ * deltaSync.sync("orders", client::getOrders, Order::getUpdatedAt, order -&gt; repository.save(order));
+ * </pre>
+ */
+@Log
+public class DeltaSync {
+
+    /**
+     * format of the 'updated_at_min' filter
+     */
+    static final DateTimeFormatter FILTER_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneOffset.UTC);
+
+    public static final Duration DEFAULT_OVERLAP = Duration.ofMinutes(5);
+
+    private final HighWaterMarkStore store;
+
+    private final Duration overlap;
+
+    private final Clock clock;
+
+    /**
+     * @param store store of the high-water marks
+     */
+    public DeltaSync(HighWaterMarkStore store) {
+        this(store, DEFAULT_OVERLAP);
+    }
+
+    /**
+     * @param store store of the high-water marks
+     * @param overlap time before the start of a synchronization that is requested again next time, covers the skew
+     * between the local and server clock
+     */
+    public DeltaSync(HighWaterMarkStore store, Duration overlap) {
+        this(store, overlap, Clock.systemUTC());
+    }
+
+    DeltaSync(HighWaterMarkStore store, Duration overlap, Clock clock) {
+        this.store = Objects.requireNonNull(store);
+        this.overlap = Objects.requireNonNull(overlap);
+        this.clock = clock;
+    }
+
+    /**
+     * @see #sync(String, Function, Function, Map, SyncSink)
+     */
+    public <T> int sync(String resource, Function<Map<String, Object>, ? extends List<T>> request, Function<T, ZonedDateTime> updatedAt, SyncSink<? super T> sink) {
+        return sync(resource, request, updatedAt, new HashMap<>(), sink);
+    }
+
+    /**
+     * Hands all records updated since the high-water mark to the sink and moves the mark.
+     *
+     * @param resource name of the resource, the key of the high-water mark
+     * @param request list request of the client, like client::getOrders
+     * @param updatedAt updatedAt of a record, like Order::getUpdatedAt
+     * @param filters other filters of the request
+     * @param sink receiver of the records
+     * @return number of records handed to the sink
+     */
+    public <T> int sync(String resource, Function<Map<String, Object>, ? extends List<T>> request, Function<T, ZonedDateTime> updatedAt,
+            Map<String, Object> filters, SyncSink<? super T> sink) {
+        ZonedDateTime start = ZonedDateTime.now(clock);
+        ZonedDateTime mark = store.get(resource);
+
+        Map<String, Object> deltaFilters = new HashMap<>(filters);
+        if (mark != null) {
+            deltaFilters.put("updated_at_min", FILTER_FORMAT.format(mark));
+        }
+
+        ZonedDateTime latest = null;
+        int count = 0;
+        PageIterator<T> records = new PageIterator<>(request, deltaFilters);
+        while (records.hasNext()) {
+            T record = records.next();
+            sink.upsert(record);
+            count++;
+            ZonedDateTime recordUpdatedAt = updatedAt.apply(record);
+            if (recordUpdatedAt != null && (latest == null || recordUpdatedAt.isAfter(latest))) {
+                latest = recordUpdatedAt;
+            }
+        }
+
+        if (latest != null) {
+            ZonedDateTime limit = start.minus(overlap);
+            ZonedDateTime next = latest.isAfter(limit) ? limit : latest;
+            if (mark == null || next.isAfter(mark)) {
+                store.put(resource, next);
+            }
+        }
+        log.fine("Synchronized " + count + " " + resource + " since " + mark);
+        return count;
+    }
+}
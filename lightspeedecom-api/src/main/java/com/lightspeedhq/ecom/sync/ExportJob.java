@@ -0,0 +1,215 @@
+package com.lightspeedhq.ecom.sync;
+
+import com.lightspeedhq.ecom.LightspeedEComClient;
+import com.lightspeedhq.ecom.PageIterator;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import lombok.Getter;
+import lombok.extern.java.Log;
+
+/**
+ * Exports all records of a list request page by page, keeping a checkpoint on disk after every page, so a job that is
+ * stopped continues at the page where it stopped instead of at page 1.<br>
+ * The checkpoint is the next page, the filters (without 'page') and the ids of the exported records. A job with other
+ * filters than its checkpoint fails, as the pages would not match. The ids are appended to a file after every
+ * page, before the checkpoint is replaced atomically. Records with an id that was exported already (moved to a later
+ * page by records created while exporting) are skipped.<br>
+ * The records of the page that was being exported when the job stopped are handed to the sink again, the sink must
+ * insert or update.
+ *
+ * <pre>
+ * ExportJob&lt;Order&gt; job = new ExportJob&lt;&gt;(Paths.get("/var/lib/lightspeedecom/export-orders"), client::getOrders, Order::getId, filters);
+ * job.run(order -&gt; archive.write(order));
+ * </pre>
+ */
+@Log
+public class ExportJob<T> {
+
+    private static final String CHECKPOINT = "checkpoint.properties";
+
+    private static final String IDS = "ids.dat";
+
+    private static final String FILTER = "filter.";
+
+    private final Path directory;
+
+    private final Function<Map<String, Object>, ? extends List<T>> request;
+
+    private final ToIntFunction<? super T> idOf;
+
+    private final Map<String, Object> filters;
+
+    private final int limit;
+
+    private final int firstPage;
+
+    /**
+     * next page to export
+     */
+    @Getter
+    private int page;
+
+    /**
+     * ids of the exported records
+     */
+    private final Set<Integer> exported = new HashSet<>();
+
+    @Getter
+    private boolean done = false;
+
+    /**
+     * @param directory directory of the checkpoint, created if it doesn't exist, one per job
+     * @param request list request of the client, like client::getOrders
+     * @param idOf id of a record, like Order::getId
+     * @param filters filters of the request, 'page' and 'limit' are used as the first page and page size
+     * @throws IOException if the checkpoint could not be read
+     * @throws IllegalStateException if the checkpoint was written with other filters
+     */
+    public ExportJob(Path directory, Function<Map<String, Object>, ? extends List<T>> request, ToIntFunction<? super T> idOf,
+            Map<String, Object> filters) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.request = request;
+        this.idOf = idOf;
+        this.filters = new HashMap<>(filters);
+        this.limit = PageIterator.intFilter(filters, "limit", LightspeedEComClient.MAX_LIMIT);
+        this.firstPage = PageIterator.intFilter(filters, "page", LightspeedEComClient.DEFAULT_PAGE);
+        this.page = firstPage;
+        this.filters.put("limit", limit);
+        load();
+    }
+
+    private void load() throws IOException {
+        Path checkpoint = directory.resolve(CHECKPOINT);
+        if (!Files.exists(checkpoint)) {
+            return;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(checkpoint)) {
+            properties.load(in);
+        }
+        Map<String, String> checkpointFilters = new HashMap<>();
+        for (String name : properties.stringPropertyNames()) {
+            if (name.startsWith(FILTER)) {
+                checkpointFilters.put(name.substring(FILTER.length()), properties.getProperty(name));
+            }
+        }
+        if (!checkpointFilters.equals(checkpointFilters())) {
+            throw new IllegalStateException("Checkpoint in " + directory + " was written with filters " + checkpointFilters
+                    + ", not " + checkpointFilters());
+        }
+        page = Integer.parseInt(properties.getProperty("page"));
+        done = Boolean.parseBoolean(properties.getProperty("done"));
+        int ids = Integer.parseInt(properties.getProperty("ids"));
+        //ids appended after the checkpoint belong to a page that is exported again
+        try (FileChannel channel = FileChannel.open(directory.resolve(IDS), StandardOpenOption.WRITE)) {
+            channel.truncate(ids * 4L);
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(directory.resolve(IDS))))) {
+            for (int i = 0; i < ids; i++) {
+                exported.add(in.readInt());
+            }
+        }
+        log.info("Export resumes at page " + page + " with " + ids + " records exported");
+    }
+
+    /**
+     * Exports the records from the checkpoint on, until a page is shorter than the limit.
+     *
+     * @param sink receiver of the records
+     * @return number of records exported by this run
+     */
+    public int run(SyncSink<? super T> sink) {
+        int count = 0;
+        while (!done) {
+            filters.put("page", page);
+            List<T> records = request.apply(filters);
+            ByteBuffer ids = ByteBuffer.allocate(records.size() * 4);
+            try {
+                for (T record : records) {
+                    int id = idOf.applyAsInt(record);
+                    if (exported.add(id)) {
+                        ids.putInt(id);
+                        sink.upsert(record);
+                        count++;
+                    }
+                }
+            } catch (RuntimeException ex) {
+                //like a resumed job, the whole page is exported again by the next run
+                for (int i = 0; i < ids.position(); i += 4) {
+                    exported.remove(ids.getInt(i));
+                }
+                throw ex;
+            }
+            page++;
+            done = records.size() < limit;
+            checkpoint(ids);
+        }
+        return count;
+    }
+
+    private void checkpoint(ByteBuffer ids) {
+        try {
+            ids.flip();
+            try (FileChannel channel = FileChannel.open(directory.resolve(IDS), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                while (ids.hasRemaining()) {
+                    channel.write(ids);
+                }
+                channel.force(false);
+            }
+
+            Properties properties = new Properties();
+            properties.setProperty("page", Integer.toString(page));
+            properties.setProperty("ids", Integer.toString(exported.size()));
+            properties.setProperty("done", Boolean.toString(done));
+            checkpointFilters().forEach((name, value) -> properties.setProperty(FILTER + name, value));
+            Path temp = directory.resolve(CHECKPOINT + ".tmp");
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                properties.store(out, "lightspeedecom export checkpoint");
+            }
+            Files.move(temp, directory.resolve(CHECKPOINT), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not write checkpoint in " + directory, ex);
+        }
+    }
+
+    /**
+     * @return the filters without 'page', as they are stored in the checkpoint
+     */
+    private Map<String, String> checkpointFilters() {
+        Map<String, String> checkpointFilters = new HashMap<>();
+        filters.forEach((name, value) -> checkpointFilters.put(name, String.valueOf(value)));
+        checkpointFilters.remove("page");
+        return checkpointFilters;
+    }
+
+    /**
+     * Removes the checkpoint, the next run starts at the first page.
+     *
+     * @throws IOException if the checkpoint could not be removed
+     */
+    public void reset() throws IOException {
+        Files.deleteIfExists(directory.resolve(CHECKPOINT));
+        Files.deleteIfExists(directory.resolve(IDS));
+        exported.clear();
+        page = firstPage;
+        done = false;
+    }
+}
@@ -0,0 +1,54 @@
+package com.lightspeedhq.ecom.sync;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.ZonedDateTime;
+import java.util.Properties;
+
+/**
+ * Keeps the high-water marks in a properties file, which is replaced atomically on every change.
+ */
+public class FileHighWaterMarkStore implements HighWaterMarkStore {
+
+    private final Path file;
+
+    private final Properties marks = new Properties();
+
+    /**
+     * @param file file to keep the marks in, created on the first change
+     * @throws IOException if the existing file could not be read
+     */
+    public FileHighWaterMarkStore(Path file) throws IOException {
+        this.file = file;
+        if (Files.exists(file)) {
+            try (InputStream in = Files.newInputStream(file)) {
+                marks.load(in);
+            }
+        }
+    }
+
+    @Override
+    public synchronized ZonedDateTime get(String resource) {
+        String mark = marks.getProperty(resource);
+        return mark != null ? ZonedDateTime.parse(mark) : null;
+    }
+
+    @Override
+    public synchronized void put(String resource, ZonedDateTime highWaterMark) {
+        marks.setProperty(resource, highWaterMark.toString());
+        try {
+            Path temp = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                marks.store(out, "lightspeedecom high-water marks");
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not store high-water marks in " + file, ex);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.lightspeedhq.ecom.sync;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Keeps the high-water mark per resource: the updatedAt up to which all records have been synchronized.
+ */
+public interface HighWaterMarkStore {
+
+    /**
+     * @param resource name of the resource, like "orders"
+     * @return high-water mark, null if the resource was never synchronized
+     */
+    ZonedDateTime get(String resource);
+
+    /**
+     * @param resource name of the resource, like "orders"
+     * @param highWaterMark new high-water mark
+     */
+    void put(String resource, ZonedDateTime highWaterMark);
+}
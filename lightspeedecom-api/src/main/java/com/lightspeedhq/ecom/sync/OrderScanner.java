@@ -0,0 +1,218 @@
+package com.lightspeedhq.ecom.sync;
+
+import com.lightspeedhq.ecom.LightspeedEComAsyncClient;
+import com.lightspeedhq.ecom.LightspeedEComClient;
+import com.lightspeedhq.ecom.Priority;
+import com.lightspeedhq.ecom.domain.Order;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.java.Log;
+
+/**
+ * Scans the orders created within a date range in partitions of at most partitionSize orders, instead of paging
+ * through all orders (which gets slower for later pages and shifts when orders arrive during the scan).<br>
+ * The range is split in halves (by 'created_at_min' and 'created_at_max') until the count of every part is at most
+ * partitionSize, then up to parallelism partitions are paged through at once. A partition that fails is scanned again
+ * from its first page, up to maxAttempts times. The orders are handed to the sink in order of the partitions, without
+ * duplicates: both filters are inclusive, so a part ends one second before the next part starts and every second is
+ * in exactly one partition.
+ *
+ * <pre>
+ * OrderScanner scanner = new OrderScanner(asyncClient, 2500, 4, 3);
+ * scanner.scan(from, to, Collections.emptyMap(), order -&gt; repository.save(order));
+ * </pre>
+ */
+@Log
+public class OrderScanner {
+
+    private final LightspeedEComAsyncClient asyncClient;
+
+    private final int partitionSize;
+
+    private final int parallelism;
+
+    private final int maxAttempts;
+
+    private Priority priority = Priority.BATCH;
+
+    /**
+     * @param asyncClient client to do the requests with
+     * @param partitionSize max number of orders in a partition, a partition of one second can have more
+     * @param parallelism max number of partitions scanned at once
+     * @param maxAttempts max number of scans of a partition
+     */
+    public OrderScanner(LightspeedEComAsyncClient asyncClient, int partitionSize, int parallelism, int maxAttempts) {
+        if (partitionSize <= 0) {
+            throw new IllegalArgumentException("partitionSize > 0");
+        }
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism > 0");
+        }
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("maxAttempts > 0");
+        }
+        this.asyncClient = Objects.requireNonNull(asyncClient);
+        this.partitionSize = partitionSize;
+        this.parallelism = parallelism;
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * @param priority priority of the requests, by default {@link Priority#BATCH}
+     */
+    public OrderScanner priority(Priority priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    /**
+     * Hands all orders created within the range to the sink.
+     *
+     * @param from start of the range, inclusive (in seconds)
+     * @param to end of the range, inclusive (in seconds)
+     * @param filters other filters of the requests, like 'customer'
+     * @param sink receiver of the orders, called on the calling thread
+     * @return number of orders handed to the sink
+     * @throws InterruptedException if interrupted while waiting for a partition, the running ones are cancelled
+     */
+    public int scan(ZonedDateTime from, ZonedDateTime to, Map<String, Object> filters, SyncSink<? super Order> sink) throws InterruptedException {
+        List<Partition> partitions = partition(from, to, filters);
+        Set<Integer> ids = new HashSet<>();
+        int count = 0;
+
+        Deque<CompletableFuture<List<Order>>> running = new ArrayDeque<>();
+        int next = 0;
+        try {
+            while (next < partitions.size() || !running.isEmpty()) {
+                while (running.size() < parallelism && next < partitions.size()) {
+                    running.add(scan(partitions.get(next++), filters, 1));
+                }
+                for (Order order : running.peek().get()) {
+                    if (ids.add(order.getId())) {
+                        sink.upsert(order);
+                        count++;
+                    }
+                }
+                running.poll();
+            }
+        } catch (ExecutionException ex) {
+            throw ex.getCause() instanceof RuntimeException ? (RuntimeException) ex.getCause() : new IllegalStateException(ex.getCause());
+        } finally {
+            running.forEach(partition -> partition.cancel(false));
+        }
+        log.fine("Scanned " + count + " orders in " + partitions.size() + " partitions from " + from + " to " + to);
+        return count;
+    }
+
+    /**
+     * Splits the range until the count of every part is at most partitionSize, the parts without orders are left out.
+     *
+     * @param from start of the range, inclusive (in seconds)
+     * @param to end of the range, inclusive (in seconds)
+     * @param filters other filters of the requests
+     * @return partitions in order of their range
+     * @throws InterruptedException if interrupted while counting
+     */
+    public List<Partition> partition(ZonedDateTime from, ZonedDateTime to, Map<String, Object> filters) throws InterruptedException {
+        try {
+            return split(from.truncatedTo(ChronoUnit.SECONDS), to.truncatedTo(ChronoUnit.SECONDS), filters).get();
+        } catch (ExecutionException ex) {
+            throw ex.getCause() instanceof RuntimeException ? (RuntimeException) ex.getCause() : new IllegalStateException(ex.getCause());
+        }
+    }
+
+    private CompletableFuture<List<Partition>> split(ZonedDateTime from, ZonedDateTime to, Map<String, Object> filters) {
+        return asyncClient.execute(priority, client -> client.getOrdersCount(filters(filters, from, to)).get()).thenCompose(count -> {
+            long seconds = Duration.between(from, to).getSeconds();
+            if (count == 0) {
+                return CompletableFuture.completedFuture(Collections.<Partition>emptyList());
+            }
+            if (count <= partitionSize || seconds < 1) {
+                return CompletableFuture.completedFuture(Collections.singletonList(new Partition(from, to, count)));
+            }
+            //the bounds are inclusive, so the halves do not overlap and a range of 2 seconds is split in 2 single seconds
+            ZonedDateTime middle = from.plusSeconds((seconds - 1) / 2);
+            return split(from, middle, filters).thenCombine(split(middle.plusSeconds(1), to, filters), (first, second) -> {
+                List<Partition> partitions = new ArrayList<>(first);
+                partitions.addAll(second);
+                return partitions;
+            });
+        });
+    }
+
+    /**
+     * Scans the partition, again from the first page when it fails and attempts are left.
+     */
+    private CompletableFuture<List<Order>> scan(Partition partition, Map<String, Object> filters, int attempt) {
+        return scan(partition, filters, 1, new ArrayList<>(partition.getCount())).handle((orders, ex) -> {
+            if (ex == null) {
+                return CompletableFuture.completedFuture(orders);
+            }
+            if (attempt >= maxAttempts || ex instanceof CompletionException && ex.getCause() instanceof InterruptedException) {
+                CompletableFuture<List<Order>> failed = new CompletableFuture<>();
+                failed.completeExceptionally(ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+                return failed;
+            }
+            log.fine("Scanning " + partition + " again after " + ex);
+            return scan(partition, filters, attempt + 1);
+        }).thenCompose(Function.identity());
+    }
+
+    private CompletableFuture<List<Order>> scan(Partition partition, Map<String, Object> filters, int page, List<Order> orders) {
+        Map<String, Object> pageFilters = filters(filters, partition.getFrom(), partition.getTo());
+        pageFilters.put("page", page);
+        pageFilters.put("limit", LightspeedEComClient.MAX_LIMIT);
+        return asyncClient.execute(priority, client -> client.getOrders(pageFilters)).thenCompose(list -> {
+            orders.addAll(list);
+            if (list.size() < LightspeedEComClient.MAX_LIMIT) {
+                return CompletableFuture.completedFuture(orders);
+            }
+            return scan(partition, filters, page + 1, orders);
+        });
+    }
+
+    private static Map<String, Object> filters(Map<String, Object> filters, ZonedDateTime from, ZonedDateTime to) {
+        Map<String, Object> partitionFilters = new HashMap<>(filters);
+        partitionFilters.put("created_at_min", DeltaSync.FILTER_FORMAT.format(from));
+        partitionFilters.put("created_at_max", DeltaSync.FILTER_FORMAT.format(to));
+        return partitionFilters;
+    }
+
+    /**
+     * Part of the range of a scan, with the number of orders it had when it was counted.
+     */
+    @AllArgsConstructor
+    public static class Partition {
+
+        @Getter
+        private final ZonedDateTime from;
+
+        @Getter
+        private final ZonedDateTime to;
+
+        @Getter
+        private final int count;
+
+        @Override
+        public String toString() {
+            return "Partition{" + "from=" + from + ", to=" + to + ", count=" + count + '}';
+        }
+    }
+}
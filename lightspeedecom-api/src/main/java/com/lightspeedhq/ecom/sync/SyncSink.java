@@ -0,0 +1,13 @@
+package com.lightspeedhq.ecom.sync;
+
+/**
+ * Receives the records that are created or changed since the last synchronization.
+ */
+@FunctionalInterface
+public interface SyncSink<T> {
+
+    /**
+     * @param record record to insert or update, the same record may be received more than once
+     */
+    void upsert(T record);
+}
@@ -0,0 +1,84 @@
+package com.lightspeedhq.ecom;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CountedPageIteratorTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    private final LightspeedEComAsyncClient asyncClient = new LightspeedEComAsyncClient(null, null, executor);
+
+    private final AtomicInteger requests = new AtomicInteger();
+
+    @After
+    public void after() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 7 results
+     */
+    private List<Integer> page(LightspeedEComClient client, Map<String, Object> filters) {
+        requests.incrementAndGet();
+        int limit = (Integer) filters.get("limit");
+        int from = ((Integer) filters.get("page") - 1) * limit;
+        return IntStream.range(from, Math.min(from + limit, 7)).boxed().collect(Collectors.toList());
+    }
+
+    @Test
+    public void stream_ordered_allResultsInOrder() {
+        CountedPageIterator<Integer> iterator = new CountedPageIterator<>(asyncClient, 7, this::page,
+                Collections.singletonMap("limit", 3), Priority.NORMAL, 2, true);
+
+        assertEquals(IntStream.range(0, 7).boxed().collect(Collectors.toList()), iterator.stream().collect(Collectors.toList()));
+        assertEquals(3, requests.get());
+    }
+
+    @Test
+    public void stream_unordered_allResults() {
+        CountedPageIterator<Integer> iterator = new CountedPageIterator<>(asyncClient, 7, this::page,
+                Collections.singletonMap("limit", 3), Priority.NORMAL, 3, false);
+
+        assertEquals(IntStream.range(0, 7).boxed().collect(Collectors.toSet()), iterator.stream().collect(Collectors.toSet()));
+        assertEquals(3, requests.get());
+    }
+
+    @Test
+    public void stream_firstPage_resultsFromFirstPage() {
+        Map<String, Object> filters = new HashMap<>();
+        filters.put("limit", 3);
+        filters.put("page", 2);
+        CountedPageIterator<Integer> iterator = new CountedPageIterator<>(asyncClient, 7, this::page, filters, Priority.NORMAL, 4, true);
+
+        assertEquals(IntStream.range(3, 7).boxed().collect(Collectors.toList()), iterator.stream().collect(Collectors.toList()));
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    public void streamCounted_filters_passedToCount() {
+        Map<String, Object> filters = new HashMap<>();
+        filters.put("status", "paid");
+        filters.put("limit", 3);
+        Map<String, Object> counted = new HashMap<>();
+
+        List<Integer> results = asyncClient.streamCounted(countFilters -> {
+            counted.putAll(countFilters);
+            return 7;
+        }, this::page, filters, 2, true).collect(Collectors.toList());
+
+        assertEquals(Collections.singletonMap("status", "paid"), counted);
+        assertEquals(7, results.size());
+    }
+}
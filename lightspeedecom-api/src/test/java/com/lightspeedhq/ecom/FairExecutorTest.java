@@ -0,0 +1,67 @@
+package com.lightspeedhq.ecom;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FairExecutorTest {
+
+    @Test
+    public void execute_noisyTenant_otherTenantTakesTurn() throws InterruptedException {
+        try (FairExecutor executor = new FairExecutor(1, 1)) {
+            Executor noisy = executor.newTenant();
+            Executor quiet = executor.newTenant();
+            List<String> order = new CopyOnWriteArrayList<>();
+            CountDownLatch blocked = new CountDownLatch(1);
+            CountDownLatch done = new CountDownLatch(102);
+
+            noisy.execute(() -> {
+                await(blocked);
+                done.countDown();
+            });
+            for (int i = 0; i < 100; i++) {
+                noisy.execute(() -> {
+                    order.add("noisy");
+                    done.countDown();
+                });
+            }
+            quiet.execute(() -> {
+                order.add("quiet");
+                done.countDown();
+            });
+            blocked.countDown();
+
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            int turn = order.indexOf("quiet");
+            assertTrue(turn >= 0 && turn <= 1);
+        }
+    }
+
+    @Test
+    public void execute_taskThrowsError_workerKeepsRunning() throws InterruptedException {
+        try (FairExecutor executor = new FairExecutor(1, 1)) {
+            Executor tenant = executor.newTenant();
+            CountDownLatch done = new CountDownLatch(1);
+
+            tenant.execute(() -> {
+                throw new AssertionError("failed");
+            });
+            tenant.execute(done::countDown);
+
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
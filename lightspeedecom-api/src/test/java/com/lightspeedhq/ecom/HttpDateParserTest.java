@@ -0,0 +1,52 @@
+package com.lightspeedhq.ecom;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class HttpDateParserTest {
+
+    private final HttpDateParser parser = new HttpDateParser();
+
+    @Test
+    public void parse_fixedFormat_sameAsFormatter() {
+        for (String date : new String[]{"Sun, 06 Nov 1994 08:49:37 GMT", "Thu, 01 Jan 1970 00:00:00 GMT",
+            "Tue, 29 Feb 2000 23:59:59 GMT", "Tue, 12 Jun 2018 09:14:27 GMT", "Fri, 31 Dec 2100 12:00:01 GMT"}) {
+            long expected = ZonedDateTime.parse(date, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+            assertEquals(date, expected, parser.parse(date));
+        }
+    }
+
+    @Test
+    public void parse_otherRfc1123Form_parsedByFormatter() {
+        long expected = ZonedDateTime.parse("Sun, 6 Nov 1994 08:49:37 GMT", DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+        assertEquals(expected, parser.parse("Sun, 6 Nov 1994 08:49:37 GMT"));
+        assertEquals(Long.MIN_VALUE, HttpDateParser.parseFixed("Sun, 6 Nov 1994 08:49:37 GMT"));
+    }
+
+    @Test(expected = DateTimeParseException.class)
+    public void parse_noDigit_exception() {
+        parser.parse("Sun, 06 Nov 1994 0x:49:37 GMT");
+    }
+
+    @Test(expected = DateTimeParseException.class)
+    public void parse_dayAfterEndOfMonth_exception() {
+        parser.parse("Sat, 31 Feb 2018 08:49:37 GMT");
+    }
+
+    @Test
+    public void parse_outOfRange_exception() {
+        for (String date : new String[]{"Tue, 29 Feb 2100 08:49:37 GMT", "Sun, 31 Apr 1994 08:49:37 GMT", "Sun, 00 Nov 1994 08:49:37 GMT",
+            "Sun, 06 Nov 1994 24:49:37 GMT", "Sun, 06 Nov 1994 08:60:37 GMT", "Sun, 06 Nov 1994 08:49:60 GMT", "Sun, 06 Xyz 1994 08:49:37 GMT"}) {
+            try {
+                parser.parse(date);
+                fail(date);
+            } catch (DateTimeParseException ex) {
+                assertEquals(date, ex.getParsedString());
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.lightspeedhq.ecom;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LightspeedEComClientFactoryTest {
+
+    @Test
+    public void getClient_secretRotated_builtAgain() {
+        try (LightspeedEComClientFactory factory = new LightspeedEComClientFactory(LightspeedEComClient.builder()
+                .cluster(LightspeedEComClient.CLUSTER_EU1).language("nl").limit(0, 300), 10, 1, TimeUnit.HOURS, 1, 1)) {
+            LightspeedEComClient client = factory.getClient("key", "secret");
+            assertSame(client, factory.getClient("key", "secret"));
+
+            LightspeedEComClient rotated = factory.getClient("key", "rotated");
+            assertNotSame(client, rotated);
+            assertSame(rotated, factory.getClient("key", "rotated"));
+            assertEquals(1, factory.getStates().size());
+        }
+    }
+
+    @Test
+    public void getClient_evicted_keepsLimiterOfShop() {
+        List<String> limiters = new ArrayList<>();
+        try (LightspeedEComClientFactory factory = new LightspeedEComClientFactory(LightspeedEComClient.builder()
+                .cluster(LightspeedEComClient.CLUSTER_EU1).language("nl").limit(0, 300), 1, 1, TimeUnit.HOURS, 1, 1, apiKey -> {
+                    limiters.add(apiKey);
+                    return new DefaultLimiterMetrics();
+                })) {
+            LightspeedEComClient client = factory.getClient("a", "secret");
+            factory.getClient("b", "secret");//evicts a
+            assertNotSame(client, factory.getClient("a", "secret"));
+            assertEquals(Arrays.asList("a", "b"), limiters);
+
+            factory.evict("a");
+            factory.getClient("a", "secret");
+            assertEquals(Arrays.asList("a", "b", "a"), limiters);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.lightspeedhq.ecom;
+
+import com.google.common.collect.ImmutableMap;
+import com.lightspeedhq.ecom.domain.Brand;
+import feign.Client;
+import feign.Response;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LightspeedEComStreamingClientTest {
+
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private LightspeedEComStreamingClient client(Client httpClient) {
+        return LightspeedEComClient.builder()
+                .cluster("api.webshopapp.com")
+                .language("nl")
+                .authorisation("key", "secret")
+                .httpClient((request, options) -> {
+                    requests.incrementAndGet();
+                    return httpClient.execute(request, options);
+                })
+                .buildStreaming();
+    }
+
+    private static Response response(int status, String body) {
+        Map<String, Collection<String>> headers = ImmutableMap.of(
+                LightspeedEComClient.HEADER_RATELIMIT_RESET, Collections.singleton("0/1800/43200"));
+        return Response.builder().status(status).reason("reason").headers(headers).body(body, StandardCharsets.UTF_8).build();
+    }
+
+    @Test
+    public void forEach_notFound_errorException() {
+        LightspeedEComStreamingClient client = client((request, options) -> response(404,
+                "{\"error\":{\"code\":404,\"method\":\"GET\",\"request\":\"/brands.json\",\"message\":\"Not found\"}}"));
+
+        try {
+            client.forEach(lists -> lists.getBrands(Collections.emptyMap()), Brand.class, brand -> fail());
+            fail();
+        } catch (LightspeedEComErrorException expected) {
+            assertEquals("Not found", expected.getError().getMessage());
+        }
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    public void forEach_tooManyRequests_retried() {
+        AtomicInteger attempts = new AtomicInteger();
+        LightspeedEComStreamingClient client = client((request, options) -> attempts.getAndIncrement() == 0
+                ? response(429, "{\"error\":{\"code\":429,\"method\":\"GET\",\"request\":\"/brands.json\",\"message\":\"Too many requests\"}}")
+                : response(200, "{\"brands\":[{\"id\":1},{\"id\":2}]}"));
+
+        List<Brand> brands = new ArrayList<>();
+        assertEquals(2, client.forEach(lists -> lists.getBrands(Collections.emptyMap()), Brand.class, brands::add));
+        assertEquals(2, requests.get());
+        assertEquals(2, brands.get(1).getId());
+    }
+}
@@ -0,0 +1,110 @@
+package com.lightspeedhq.ecom;
+
+import com.google.common.collect.ImmutableMap;
+import feign.Client;
+import feign.Response;
+import feign.RetryableException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LimitClientTest {
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    private Limiter limiter;
+
+    @After
+    public void after() {
+        scheduler.shutdownNow();
+    }
+
+    private LightspeedEComClient client(Client httpClient) {
+        LightspeedEComClientBuilder builder = LightspeedEComClient.builder()
+                .cluster("api.webshopapp.com")
+                .language("nl")
+                .limit(0, 100)
+                .retryBudget(0)
+                .scheduler(scheduler)
+                .httpClient(httpClient);
+        limiter = builder.createLimiter(new InMemoryLimiterStore());
+        return builder.build(limiter, "key", "secret");
+    }
+
+    private static Response response(int status, String body) {
+        Map<String, Collection<String>> headers = ImmutableMap.of(
+                LightspeedEComClient.HEADER_RATELIMIT_LIMIT, Collections.singleton("300/3000/12000"),
+                LightspeedEComClient.HEADER_RATELIMIT_REMAINING, Collections.singleton("250/2999/11999"),
+                LightspeedEComClient.HEADER_RATELIMIT_RESET, Collections.singleton("120/1800/43200"));
+        return Response.builder().status(status).reason("reason").headers(headers).body(body, StandardCharsets.UTF_8).build();
+    }
+
+    @Test
+    public void execute_voidRequest_permitGivenBack() {
+        LightspeedEComClient client = client((request, options) -> response(204, ""));
+
+        client.deleteWebhook(1);
+        client.removeCustomer(2);
+
+        assertEquals(0, limiter.getState().getInFlight());
+        assertEquals(2, limiter.getState().getDoneRequests());
+        assertEquals(250, limiter.getState().getRemaining5min());
+    }
+
+    @Test
+    public void execute_ioException_permitGivenBack() {
+        LightspeedEComClient client = client((request, options) -> {
+            throw new IOException("connection reset");
+        });
+
+        try {
+            client.deleteWebhook(1);
+            fail();
+        } catch (RetryableException expected) {
+        }
+        assertEquals(1, limiter.getState().getDoneRequests());
+        assertEquals(0, limiter.getState().getInFlight());
+    }
+
+    @Test
+    public void execute_errorStatus_permitGivenBack() {
+        LightspeedEComClient client = client((request, options) -> response(404, "{\"error\":{\"code\":404,\"method\":\"DELETE\",\"request\":\"/webhooks/1.json\",\"message\":\"Not found\"}}"));
+
+        try {
+            client.deleteWebhook(1);
+            fail();
+        } catch (LightspeedEComErrorException expected) {
+        }
+        assertEquals(0, limiter.getState().getInFlight());
+    }
+
+    @Test
+    public void build_warmUpFails_clientBuilt() {
+        LightspeedEComClient client = LightspeedEComClient.builder()
+                .cluster("api.webshopapp.com")
+                .language("nl")
+                .authorisation("key", "secret")
+                .limit(0, 100)
+                .retryBudget(0)
+                .scheduler(scheduler)
+                .warmUp(0, TimeUnit.MINUTES)
+                .httpClient((request, options) -> {
+                    if (request.url().contains("account/ratelimit")) {
+                        throw new IOException("connection refused");
+                    }
+                    return response(204, "");
+                })
+                .build();
+
+        client.deleteWebhook(1);//the limit is learned from the response
+    }
+}
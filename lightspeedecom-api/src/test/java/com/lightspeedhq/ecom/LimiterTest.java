@@ -0,0 +1,288 @@
+package com.lightspeedhq.ecom;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableMap;
+import com.lightspeedhq.ecom.domain.AccountRatelimit;
+import feign.Response;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(1_500_000_000_000L);
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    @After
+    public void after() {
+        scheduler.shutdownNow();
+    }
+
+    private Response response(String limit, String remaining, String reset) {
+        String date = DateTimeFormatter.RFC_1123_DATE_TIME.format(Instant.ofEpochMilli(clock.get()).atOffset(ZoneOffset.UTC));
+        Map<String, Collection<String>> headers = ImmutableMap.of(
+                LightspeedEComClient.HEADER_RATELIMIT_LIMIT, Collections.singleton(limit),
+                LightspeedEComClient.HEADER_RATELIMIT_REMAINING, Collections.singleton(remaining),
+                LightspeedEComClient.HEADER_RATELIMIT_RESET, Collections.singleton(reset),
+                "Date", Collections.singleton(date));
+        return Response.builder().status(200).headers(headers).build();
+    }
+
+    @Test
+    public void update_headers_stateUpdated() {
+        Limiter limiter = new Limiter(0, 100, false, 1000, scheduler, new InMemoryLimiterStore(), clock::get);
+        limiter.update(response("300/3000/12000", "299/2999/11999", "120/1800/43200"));
+
+        LimiterState state = limiter.getState();
+        assertEquals(300, state.getLimit5min());
+        assertEquals(2999, state.getRemaining1h());
+        assertEquals(43200, state.getReset1d());
+        assertEquals(clock.get() / 1000 * 1000 + 120_000, state.getWindowEnd());
+    }
+
+    @Test
+    public void update_accountRatelimit_throttlesBeforeFirstResponse() throws Exception {
+        Limiter limiter = new Limiter(0, 300, false, 1, scheduler, new InMemoryLimiterStore(), clock::get);
+        AccountRatelimit ratelimit = new ObjectMapper().enable(DeserializationFeature.UNWRAP_ROOT_VALUE).readValue("{\"accountRatelimit\":{"
+                + "\"limit5Min\":{\"limit\":300,\"remaining\":10,\"reset\":100},"
+                + "\"limitHour\":{\"limit\":3000,\"remaining\":2990,\"reset\":1800},"
+                + "\"limitDay\":{\"limit\":12000,\"remaining\":11990,\"reset\":43200}}}", AccountRatelimit.class);
+        limiter.update(ratelimit);
+
+        LimiterState state = limiter.getState();
+        assertFalse(state.isEmpty());
+        assertEquals(10, state.getRemaining5min());
+        assertEquals(clock.get() + 100_000, state.getWindowEnd());
+        assertEquals(0, limiter.tryReserve());
+        assertTrue(limiter.tryReserve() > 0);
+    }
+
+    @Test
+    public void tryRetry_budgetUsed_refusedUntilNextWindow() {
+        Limiter limiter = new Limiter(0, 100, false, 1000, scheduler, new InMemoryLimiterStore(), clock::get);
+        limiter.update(response("300/3000/12000", "299/2999/11999", "120/1800/43200"));
+        limiter.setRetryBudget(2);
+
+        assertTrue(limiter.tryRetry());
+        assertTrue(limiter.tryRetry());
+        assertFalse(limiter.tryRetry());
+
+        clock.addAndGet(120_000);
+        assertTrue(limiter.tryRetry());
+    }
+
+    @Test
+    public void metrics_permitsAndEndpoints_counted() {
+        Limiter limiter = new Limiter(0, 2, false, 1000, scheduler, new InMemoryLimiterStore(), clock::get);
+        DefaultLimiterMetrics metrics = new DefaultLimiterMetrics();
+        limiter.setMetrics(metrics);
+        limiter.update(response("300/3000/12000", "210/2999/11999", "120/1800/43200"));
+
+        limiter.waitOrContinue();
+        limiter.waitOrContinue();
+        try {
+            limiter.waitOrContinue();
+            fail();
+        } catch (LimitException expected) {
+        }
+        metrics.requestSent(LimitRequestInterceptor.endpoint("GET", "/orders/123.json?page=2"));
+        metrics.requestSent(LimitRequestInterceptor.endpoint("GET", "/orders/456.json"));
+
+        assertEquals(2, metrics.getPermits());
+        assertEquals(1, metrics.getPermitsRefused());
+        assertEquals(0.3, metrics.getUtilisation5min(), 0.001);
+        assertEquals(Long.valueOf(2), metrics.getRequestsPerEndpoint().get("GET /orders/{id}.json"));
+    }
+
+    @Test
+    public void waitOrContinue_concurrent_neverExceedsMaxRequests() throws InterruptedException {
+        Limiter limiter = new Limiter(0, 100, false, 1000, scheduler, new InMemoryLimiterStore(), clock::get);
+        limiter.update(response("300/3000/12000", "299/2999/11999", "120/1800/43200"));
+
+        AtomicInteger permits = new AtomicInteger();
+        AtomicInteger refused = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int i = 0; i < 1000; i++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    limiter.waitOrContinue();
+                    permits.incrementAndGet();
+                } catch (LimitException ex) {
+                    refused.incrementAndGet();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(100, permits.get());
+        assertEquals(900, refused.get());
+        assertEquals(100, limiter.getState().getInFlight());
+    }
+
+    @Test
+    public void waitOrContinue_minRemaining_keepsReserve() {
+        Limiter limiter = new Limiter(5, 100, false, 1000, scheduler, new InMemoryLimiterStore(), clock::get);
+        limiter.update(response("300/3000/12000", "8/2999/11999", "120/1800/43200"));
+
+        limiter.waitOrContinue();
+        limiter.waitOrContinue();
+        limiter.waitOrContinue();
+        try {
+            limiter.waitOrContinue();
+            fail("reserve of 5 should be kept");
+        } catch (LimitException expected) {
+        }
+
+        //window passed, a new one starts
+        clock.addAndGet(121_000);
+        limiter.waitOrContinue();
+        assertEquals(1, limiter.getState().getDoneRequests());
+    }
+
+    @Test
+    public void tryReserve_dayWindowTightest_spreadOverDay() {
+        Limiter limiter = new Limiter(0, 300, false, 1, scheduler, new InMemoryLimiterStore(), clock::get);
+        //5min: 120s / 299 = 401ms, 1h: 1800s / 2999 = 600ms, 1d: 43200s / 11999 = 3600ms
+        limiter.update(response("300/3000/12000", "299/2999/11999", "120/1800/43200"));
+
+        assertEquals(0, limiter.tryReserve());
+        assertEquals(3600, limiter.tryReserve());
+        clock.addAndGet(3600);
+        assertEquals(0, limiter.tryReserve());
+    }
+
+    @Test
+    public void tryReserve_burst_allowsBurstThenSpreads() {
+        Limiter limiter = new Limiter(0, 300, false, 3, scheduler, new InMemoryLimiterStore(), clock::get);
+        limiter.update(response("300/3000/12000", "299/2999/11999", "120/1800/43200"));
+
+        assertEquals(0, limiter.tryReserve());
+        assertEquals(0, limiter.tryReserve());
+        assertEquals(0, limiter.tryReserve());
+        assertTrue(limiter.tryReserve() > 0);
+    }
+
+    @Test
+    public void acquireAsync_noPermit_completedWhenDue() throws Exception {
+        Limiter limiter = new Limiter(0, 300, true, 1, scheduler, new InMemoryLimiterStore(), System::currentTimeMillis);
+        clock.set(System.currentTimeMillis());
+        //1d window: 43200s / 432000 = 100ms
+        limiter.update(response("300/3000/432000", "299/2999/432000", "120/1800/43200"));
+
+        CompletableFuture<Void> first = limiter.acquireAsync();
+        CompletableFuture<Void> second = limiter.acquireAsync();
+        CompletableFuture<Void> third = limiter.acquireAsync();
+        assertTrue(first.isDone());
+        assertFalse(second.isDone());
+
+        third.get(5, TimeUnit.SECONDS);
+        assertTrue(second.isDone());
+        assertEquals(3, limiter.getState().getInFlight());
+    }
+
+    @Test
+    public void acquireAsync_cancelled_permitNotUsed() throws Exception {
+        Limiter limiter = new Limiter(0, 300, true, 1, scheduler, new InMemoryLimiterStore(), System::currentTimeMillis);
+        clock.set(System.currentTimeMillis());
+        limiter.update(response("300/3000/432000", "299/2999/432000", "120/1800/43200"));
+
+        limiter.acquireAsync();
+        limiter.acquireAsync().cancel(false);
+        limiter.acquireAsync().get(5, TimeUnit.SECONDS);
+        assertEquals(2, limiter.getState().getInFlight());
+    }
+
+    @Test
+    public void acquireAsync_interactive_preemptsQueuedBatch() throws Exception {
+        Limiter limiter = new Limiter(0, 300, true, 1, scheduler, new InMemoryLimiterStore(), System::currentTimeMillis);
+        clock.set(System.currentTimeMillis());
+        //1d window: 43200s / 432000 = 100ms
+        limiter.update(response("300/3000/432000", "299/2999/432000", "120/1800/43200"));
+
+        limiter.acquireAsync(Priority.BATCH).get();
+        CompletableFuture<Void> batch = limiter.acquireAsync(Priority.BATCH);
+        CompletableFuture<Void> interactive = limiter.acquireAsync(Priority.INTERACTIVE);
+
+        interactive.get(5, TimeUnit.SECONDS);
+        assertFalse(batch.isDone());
+        batch.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void tryReserve_laneReserve_keptForHigherPriority() {
+        Limiter limiter = new Limiter(0, 300, false, 1000, scheduler, new InMemoryLimiterStore(), clock::get);
+        limiter.setLane(Priority.BATCH, 5, 1);
+        limiter.update(response("300/3000/12000", "6/2999/11999", "120/1800/43200"));
+
+        assertEquals(0, limiter.tryReserve(Priority.BATCH));
+        assertTrue(limiter.tryReserve(Priority.BATCH) > 0);
+        assertEquals(0, limiter.tryReserve(Priority.NORMAL));
+    }
+
+    @Test
+    public void runWithPermit_noRequest_permitGivenBack() throws Exception {
+        Limiter limiter = new Limiter(0, 300, false, 1000, scheduler, new InMemoryLimiterStore(), clock::get);
+        limiter.update(response("300/3000/12000", "299/2999/11999", "120/1800/43200"));
+
+        limiter.acquireAsync().get();
+        assertNull(limiter.runWithPermit(() -> null));
+        assertEquals(0, limiter.getState().getInFlight());
+    }
+
+    @Test
+    public void execute_cancelledAfterPermit_permitGivenBack() {
+        Limiter limiter = new Limiter(0, 300, false, 1000, scheduler, new InMemoryLimiterStore(), clock::get);
+        limiter.update(response("300/3000/12000", "299/2999/11999", "120/1800/43200"));
+        Queue<Runnable> tasks = new ArrayDeque<>();
+        AtomicInteger requests = new AtomicInteger();
+        LightspeedEComAsyncClient asyncClient = new LightspeedEComAsyncClient(null, limiter, tasks::add);
+
+        CompletableFuture<Integer> result = asyncClient.execute(client -> requests.incrementAndGet());
+        assertEquals(1, limiter.getState().getInFlight());
+        result.cancel(false);
+        tasks.forEach(Runnable::run);
+
+        assertEquals(0, requests.get());
+        assertEquals(0, limiter.getState().getInFlight());
+    }
+
+    @Test
+    public void waitOrContinue_interrupted_throws() {
+        Limiter limiter = new Limiter(0, 300, true, 1, scheduler, new InMemoryLimiterStore(), clock::get);
+        limiter.update(response("300/3000/12000", "0/2999/11999", "120/1800/43200"));
+
+        Thread.currentThread().interrupt();
+        try {
+            limiter.waitOrContinue();
+            fail();
+        } catch (IllegalStateException expected) {
+        }
+        assertTrue(Thread.interrupted());
+        assertEquals(0, limiter.getState().getInFlight());
+    }
+}
@@ -0,0 +1,83 @@
+package com.lightspeedhq.ecom;
+
+import com.google.common.collect.ImmutableMap;
+import feign.Response;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.*;
+
+public class MappedFileLimiterStoreTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    @After
+    public void after() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void compareAndSet_expected_storedForOtherStore() throws Exception {
+        Path file = folder.newFile("limiter").toPath();
+        try (MappedFileLimiterStore first = new MappedFileLimiterStore(file);
+                MappedFileLimiterStore second = new MappedFileLimiterStore(file)) {
+            assertEquals(LimiterState.EMPTY, first.get());
+
+            LimiterState update = LimiterState.EMPTY.reserve(42);
+            assertTrue(first.compareAndSet(LimiterState.EMPTY, update));
+            assertEquals(update, second.get());
+            assertFalse(second.compareAndSet(LimiterState.EMPTY, LimiterState.EMPTY));
+        }
+    }
+
+    @Test
+    public void close_lastStoreOfFile_monitorRemoved() throws Exception {
+        Path file = folder.newFile("limiter").toPath();
+        MappedFileLimiterStore first = new MappedFileLimiterStore(file);
+        try (MappedFileLimiterStore second = new MappedFileLimiterStore(file)) {
+            first.close();
+            first.close();
+            assertTrue(MappedFileLimiterStore.MONITORS.containsKey(file.toRealPath()));
+        }
+        assertFalse(MappedFileLimiterStore.MONITORS.containsKey(file.toRealPath()));
+    }
+
+    @Test
+    public void waitOrContinue_twoLimitersOneFile_shareMaxRequests() throws Exception {
+        Path file = folder.newFile("limiter").toPath();
+        try (MappedFileLimiterStore firstStore = new MappedFileLimiterStore(file);
+                MappedFileLimiterStore secondStore = new MappedFileLimiterStore(file)) {
+            Limiter first = new Limiter(0, 10, false, 100, scheduler, firstStore);
+            Limiter second = new Limiter(0, 10, false, 100, scheduler, secondStore);
+            first.update(Response.builder().status(200).headers(ImmutableMap.of(
+                    LightspeedEComClient.HEADER_RATELIMIT_LIMIT, Collections.singleton("300/3000/12000"),
+                    LightspeedEComClient.HEADER_RATELIMIT_REMAINING, Collections.singleton("300/3000/12000"),
+                    LightspeedEComClient.HEADER_RATELIMIT_RESET, Collections.singleton("300/3600/86400"),
+                    "Date", Collections.singleton(DateTimeFormatter.RFC_1123_DATE_TIME.format(Instant.now().atOffset(ZoneOffset.UTC)))))
+                    .build());
+
+            int permits = 0;
+            for (int i = 0; i < 20; i++) {
+                try {
+                    (i % 2 == 0 ? first : second).waitOrContinue();
+                    permits++;
+                } catch (LimitException ex) {
+                }
+            }
+            assertEquals(10, permits);
+            assertEquals(10, second.getState().getDoneRequests());
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.lightspeedhq.ecom;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PageIteratorTest {
+
+    private final List<Map<String, Object>> requests = new ArrayList<>();
+
+    /**
+     * 7 results
+     */
+    private List<Integer> page(Map<String, Object> filters) {
+        requests.add(new HashMap<>(filters));
+        int limit = (Integer) filters.get("limit");
+        int from = ((Integer) filters.get("page") - 1) * limit;
+        return IntStream.range(from, Math.min(from + limit, 7)).boxed().collect(Collectors.toList());
+    }
+
+    @Test
+    public void stream_shortLastPage_stops() {
+        List<Integer> results = PageIterator.stream(this::page, Collections.singletonMap("limit", 3)).collect(Collectors.toList());
+
+        assertEquals(IntStream.range(0, 7).boxed().collect(Collectors.toList()), results);
+        assertEquals(3, requests.size());
+    }
+
+    @Test
+    public void stream_partlyConsumed_fetchesOnlyNeededPages() {
+        List<Integer> results = PageIterator.stream(this::page, Collections.emptyMap()).limit(1).collect(Collectors.toList());
+
+        assertEquals(Collections.singletonList(0), results);
+        assertEquals(1, requests.size());
+        assertEquals(LightspeedEComClient.MAX_LIMIT, requests.get(0).get("limit"));
+    }
+}
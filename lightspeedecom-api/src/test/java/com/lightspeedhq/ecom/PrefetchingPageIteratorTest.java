@@ -0,0 +1,59 @@
+package com.lightspeedhq.ecom;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PrefetchingPageIteratorTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    private final LightspeedEComAsyncClient asyncClient = new LightspeedEComAsyncClient(null, null, executor);
+
+    private final AtomicInteger requests = new AtomicInteger();
+
+    @After
+    public void after() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 7 results
+     */
+    private List<Integer> page(LightspeedEComClient client, Map<String, Object> filters) {
+        requests.incrementAndGet();
+        int limit = (Integer) filters.get("limit");
+        int from = ((Integer) filters.get("page") - 1) * limit;
+        return IntStream.range(from, Math.min(from + limit, 7)).boxed().collect(Collectors.toList());
+    }
+
+    @Test
+    public void stream_readAhead_allResultsInOrder() {
+        try (Stream<Integer> results = asyncClient.stream(this::page, Collections.singletonMap("limit", 3), 2)) {
+            assertEquals(IntStream.range(0, 7).boxed().collect(Collectors.toList()), results.collect(Collectors.toList()));
+        }
+        assertTrue(requests.get() <= 4);
+    }
+
+    @Test
+    public void close_pendingPages_cancelled() {
+        PrefetchingPageIterator<Integer> iterator = new PrefetchingPageIterator<>(asyncClient, this::page,
+                Collections.singletonMap("limit", 3), Priority.NORMAL, 2);
+        assertEquals(Integer.valueOf(0), iterator.next());
+        iterator.close();
+
+        assertEquals(Integer.valueOf(1), iterator.next());
+        assertEquals(Integer.valueOf(2), iterator.next());
+        assertFalse(iterator.hasNext());
+    }
+}
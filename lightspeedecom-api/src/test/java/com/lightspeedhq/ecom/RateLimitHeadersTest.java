@@ -0,0 +1,46 @@
+package com.lightspeedhq.ecom;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class RateLimitHeadersTest {
+
+    @Test
+    public void parseTriplet_valid_numbersWritten() {
+        int[] values = new int[6];
+        RateLimitHeaders.parseTriplet("300/3000/12000", values, 3);
+        assertArrayEquals(new int[]{0, 0, 0, 300, 3000, 12000}, values);
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void parseTriplet_twoNumbers_exception() {
+        RateLimitHeaders.parseTriplet("300/3000", new int[3], 0);
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void parseTriplet_fourNumbers_exception() {
+        RateLimitHeaders.parseTriplet("300/3000/12000/1", new int[3], 0);
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void parseTriplet_emptyNumber_exception() {
+        RateLimitHeaders.parseTriplet("300//12000", new int[3], 0);
+    }
+
+    @Test
+    public void parseFirst_valid_firstNumber() {
+        assertEquals(112, RateLimitHeaders.parseFirst("112/1800/43200"));
+    }
+
+    @Test
+    public void parseNumber_valid_numberAtIndex() {
+        assertEquals(1800, RateLimitHeaders.parseNumber("112/1800/43200", 1));
+        assertEquals(43200, RateLimitHeaders.parseNumber("112/1800/43200", 2));
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void parseNumber_invalidAfterIndex_exception() {
+        RateLimitHeaders.parseNumber("112/1800/x", 0);
+    }
+}
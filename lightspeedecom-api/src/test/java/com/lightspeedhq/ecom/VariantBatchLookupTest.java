@@ -0,0 +1,88 @@
+package com.lightspeedhq.ecom;
+
+import com.lightspeedhq.ecom.domain.Count;
+import com.lightspeedhq.ecom.domain.Variant;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class VariantBatchLookupTest {
+
+    private static LightspeedEComClient client(int variantCount) {
+        Count count = new Count();
+        count.set(variantCount);
+        return (LightspeedEComClient) Proxy.newProxyInstance(LightspeedEComClient.class.getClassLoader(), new Class<?>[]{LightspeedEComClient.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("getVariantCount")) {
+                        return count;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    @Test
+    public void strategy_fewerPagesThanProducts_scan() {
+        VariantBatchLookup lookup = new VariantBatchLookup(client(2 * LightspeedEComClient.MAX_LIMIT - 1));
+
+        assertEquals(VariantBatchLookup.Strategy.PER_PRODUCT, lookup.strategy(1));
+        assertEquals(VariantBatchLookup.Strategy.PER_PRODUCT, lookup.strategy(2));
+        assertEquals(VariantBatchLookup.Strategy.SCAN, lookup.strategy(3));
+    }
+
+    @Test
+    public void getVariants_lookupOfOtherThreadThrowsError_errorShared() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch fail = new CountDownLatch(1);
+        CountDownLatch joined = new CountDownLatch(1);
+        AtomicInteger requests = new AtomicInteger();
+        LightspeedEComClient client = (LightspeedEComClient) Proxy.newProxyInstance(LightspeedEComClient.class.getClassLoader(), new Class<?>[]{LightspeedEComClient.class},
+                (proxy, method, args) -> {
+                    requests.incrementAndGet();
+                    started.countDown();
+                    fail.await();
+                    throw new AssertionError("failed");
+                });
+        VariantBatchLookup lookup = new VariantBatchLookup(client, new ConcurrentHashMap<Integer, CompletableFuture<List<Variant>>>() {
+            @Override
+            public CompletableFuture<List<Variant>> putIfAbsent(Integer key, CompletableFuture<List<Variant>> value) {
+                CompletableFuture<List<Variant>> other = super.putIfAbsent(key, value);
+                if (other != null) {
+                    joined.countDown();
+                }
+                return other;
+            }
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> first = executor.submit(() -> lookup.getVariants(Collections.singleton(1)));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<?> second = executor.submit(() -> lookup.getVariants(Collections.singleton(1)));
+            assertTrue(joined.await(5, TimeUnit.SECONDS));//second joins the lookup of first
+            fail.countDown();
+
+            for (Future<?> future : new Future<?>[]{first, second}) {
+                try {
+                    future.get(5, TimeUnit.SECONDS);
+                    fail();
+                } catch (ExecutionException ex) {
+                    assertTrue(ex.getCause() instanceof AssertionError);
+                }
+            }
+            assertEquals(1, requests.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
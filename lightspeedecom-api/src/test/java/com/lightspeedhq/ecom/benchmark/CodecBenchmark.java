@@ -0,0 +1,86 @@
+package com.lightspeedhq.ecom.benchmark;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.google.common.io.Resources;
+import com.lightspeedhq.ecom.LightspeedEComClient;
+import com.lightspeedhq.ecom.codegen.CodecModule;
+import com.lightspeedhq.ecom.domain.Order;
+import com.lightspeedhq.ecom.jackson.ObjectMappers;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares reading and writing a page of orders by the bean (de)serializers of Jackson (as it was before) to the
+ * codecs of the {@link CodecModule}, the mappers have the other {@link ObjectMappers#modules()} in common.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodecBenchmark {
+
+    private byte[] page;
+
+    private Order.List orders;
+
+    private ObjectMapper reflectionMapper;
+
+    private ObjectMapper generatedMapper;
+
+    @Setup
+    public void setup() throws IOException {
+        String order = Resources.toString(Resources.getResource(CodecBenchmark.class, "order.json"), StandardCharsets.UTF_8);
+        StringBuilder json = new StringBuilder("{\"orders\": [");
+        for (int i = 0; i < LightspeedEComClient.MAX_LIMIT; i++) {
+            json.append(i == 0 ? "" : ",").append(order);
+        }
+        page = json.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+
+        reflectionMapper = new ObjectMapper()
+                .configure(SerializationFeature.WRAP_ROOT_VALUE, true)
+                .configure(DeserializationFeature.UNWRAP_ROOT_VALUE, true)
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+                .setTimeZone(TimeZone.getTimeZone("UTC"));
+        ObjectMappers.modules().stream()
+                .filter(module -> !(module instanceof CodecModule))
+                .forEach(reflectionMapper::registerModule);
+        generatedMapper = ObjectMappers.create();
+        orders = reflectionMapper.readValue(page, Order.List.class);
+    }
+
+    @Benchmark
+    public Order.List readReflection() throws IOException {
+        return reflectionMapper.readValue(page, Order.List.class);
+    }
+
+    @Benchmark
+    public Order.List readGenerated() throws IOException {
+        return generatedMapper.readValue(page, Order.List.class);
+    }
+
+    @Benchmark
+    public byte[] writeReflection() throws IOException {
+        return reflectionMapper.writeValueAsBytes(orders);
+    }
+
+    @Benchmark
+    public byte[] writeGenerated() throws IOException {
+        return generatedMapper.writeValueAsBytes(orders);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CodecBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,104 @@
+package com.lightspeedhq.ecom.benchmark;
+
+import com.fasterxml.jackson.core.Version;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.datatype.jsr310.deser.InstantDeserializer;
+import com.google.common.io.Resources;
+import com.lightspeedhq.ecom.LightspeedEComClient;
+import com.lightspeedhq.ecom.domain.Order;
+import com.lightspeedhq.ecom.jackson.DateTimeCodec;
+import com.lightspeedhq.ecom.jackson.ObjectMappers;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares reading timestamps with {@link DateTimeFormatter#ISO_ZONED_DATE_TIME} (as the JSR310Module does) to
+ * {@link DateTimeCodec}, for a page of orders and for a single timestamp, and writing one as text.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateTimeBenchmark {
+
+    private final String time = "2018-06-12T09:14:27+02:00";
+
+    private final char[] timeCharacters = time.toCharArray();
+
+    private final ZoneId utc = ZoneId.of("UTC");
+
+    private final ZonedDateTime value = ZonedDateTime.parse(time);
+
+    private final char[] buffer = new char[DateTimeCodec.MAX_LENGTH];
+
+    private byte[] page;
+
+    private ObjectMapper formatterMapper;
+
+    private ObjectMapper codecMapper;
+
+    @Setup
+    public void setup() throws IOException {
+        String order = Resources.toString(Resources.getResource(DateTimeBenchmark.class, "order.json"), StandardCharsets.UTF_8);
+        StringBuilder json = new StringBuilder("{\"orders\": [");
+        for (int i = 0; i < LightspeedEComClient.MAX_LIMIT; i++) {
+            json.append(i == 0 ? "" : ",").append(order);
+        }
+        page = json.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+
+        formatterMapper = ObjectMappers.create().registerModule(new SimpleModule("Formatter", Version.unknownVersion())
+                .addDeserializer(ZonedDateTime.class, InstantDeserializer.ZONED_DATE_TIME));
+        codecMapper = ObjectMappers.create();
+    }
+
+    @Benchmark
+    public Order.List pageFormatter() throws IOException {
+        return formatterMapper.readValue(page, Order.List.class);
+    }
+
+    @Benchmark
+    public Order.List pageCodec() throws IOException {
+        return codecMapper.readValue(page, Order.List.class);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public ZonedDateTime parseFormatter() {
+        return ZonedDateTime.parse(time, DateTimeFormatter.ISO_ZONED_DATE_TIME).withZoneSameInstant(utc);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public ZonedDateTime parseCodec() {
+        return DateTimeCodec.parse(timeCharacters, 0, timeCharacters.length, utc);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public String formatFormatter() {
+        return DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(value);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public int formatCodec() {
+        return DateTimeCodec.format(value, buffer);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(DateTimeBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,123 @@
+package com.lightspeedhq.ecom.benchmark;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.deser.ContextualDeserializer;
+import com.fasterxml.jackson.databind.introspect.Annotated;
+import com.fasterxml.jackson.databind.introspect.JacksonAnnotationIntrospector;
+import com.lightspeedhq.ecom.LightspeedEComClient;
+import com.lightspeedhq.ecom.domain.Order;
+import com.lightspeedhq.ecom.jackson.FalseNullDeserializer;
+import com.lightspeedhq.ecom.jackson.ObjectMappers;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares decoding a page of orders with the exception based {@link FalseNullDeserializer} (as it was before) to the
+ * token based one. The orders have all false-or-object fields set, the worst case for the exception based one.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FalseNullDeserializerBenchmark {
+
+    private byte[] page;
+
+    private ObjectMapper exceptionMapper;
+
+    private ObjectMapper tokenMapper;
+
+    @Setup
+    public void setup() throws IOException {
+        String order = read("order.json");
+        StringBuilder json = new StringBuilder("{\"orders\": [");
+        for (int i = 0; i < LightspeedEComClient.MAX_LIMIT; i++) {
+            json.append(i == 0 ? "" : ",").append(order);
+        }
+        page = json.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+
+        exceptionMapper = ObjectMappers.create();
+        exceptionMapper.setAnnotationIntrospector(new JacksonAnnotationIntrospector() {
+            @Override
+            public Class<? extends JsonDeserializer<?>> findDeserializer(Annotated a) {
+                Class<? extends JsonDeserializer<?>> deserializer = super.findDeserializer(a);
+                return deserializer == FalseNullDeserializer.class ? ExceptionFalseNullDeserializer.class : deserializer;
+            }
+        });
+        tokenMapper = ObjectMappers.create();
+    }
+
+    private static String read(String resource) throws IOException {
+        try (InputStream in = FalseNullDeserializerBenchmark.class.getResourceAsStream(resource)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            for (int read = in.read(buffer); read != -1; read = in.read(buffer)) {
+                out.write(buffer, 0, read);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Benchmark
+    public Order.List exceptionPerValue() throws IOException {
+        return exceptionMapper.readValue(page, Order.List.class);
+    }
+
+    @Benchmark
+    public Order.List peekToken() throws IOException {
+        return tokenMapper.readValue(page, Order.List.class);
+    }
+
+    /**
+     * {@link FalseNullDeserializer} as it was, catching the exception of getBooleanValue() for every value that is not
+     * false.
+     */
+    public static class ExceptionFalseNullDeserializer extends JsonDeserializer<Object> implements ContextualDeserializer {
+
+        private final JsonDeserializer<Object> deserializer;
+
+        public ExceptionFalseNullDeserializer() {
+            this(null);
+        }
+
+        private ExceptionFalseNullDeserializer(JsonDeserializer<Object> deserializer) {
+            this.deserializer = deserializer;
+        }
+
+        @Override
+        public JsonDeserializer<?> createContextual(DeserializationContext ctxt, BeanProperty property) throws JsonMappingException {
+            return new ExceptionFalseNullDeserializer(ctxt.findContextualValueDeserializer(property.getType(), property));
+        }
+
+        @Override
+        public Object deserialize(JsonParser jp, DeserializationContext ctxt) throws IOException {
+            try {
+                jp.getBooleanValue();
+                return null;
+            } catch (JsonParseException ex) {
+                return deserializer.deserialize(jp, ctxt);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(FalseNullDeserializerBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
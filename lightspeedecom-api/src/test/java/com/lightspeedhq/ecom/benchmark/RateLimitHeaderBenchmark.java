@@ -0,0 +1,78 @@
+package com.lightspeedhq.ecom.benchmark;
+
+import com.lightspeedhq.ecom.HttpDateParser;
+import com.lightspeedhq.ecom.RateLimitHeaders;
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares parsing the rate-limit headers of a response with split/parseInt/SimpleDateFormat (as Limiter did before)
+ * to {@link RateLimitHeaders} and {@link HttpDateParser}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimitHeaderBenchmark {
+
+    private final String limit = "300/3000/12000";
+    private final String remaining = "287/2950/11890";
+    private final String reset = "112/1800/43200";
+    private final String date = "Tue, 12 Jun 2018 09:14:27 GMT";
+
+    private final HttpDateParser dateParser = new HttpDateParser();
+
+    @Benchmark
+    public void splitAndSimpleDateFormat(Blackhole blackhole) throws ParseException {
+        String[] limitStrings = limit.split("/");
+        blackhole.consume(Integer.parseInt(limitStrings[0]));
+        blackhole.consume(Integer.parseInt(limitStrings[1]));
+        blackhole.consume(Integer.parseInt(limitStrings[2]));
+        String[] remainingStrings = remaining.split("/");
+        blackhole.consume(Integer.parseInt(remainingStrings[0]));
+        blackhole.consume(Integer.parseInt(remainingStrings[1]));
+        blackhole.consume(Integer.parseInt(remainingStrings[2]));
+        String[] resetStrings = reset.split("/");
+        blackhole.consume(Integer.parseInt(resetStrings[0]));
+        blackhole.consume(Integer.parseInt(resetStrings[1]));
+        blackhole.consume(Integer.parseInt(resetStrings[2]));
+
+        DateFormat format = new SimpleDateFormat("EEE, d MMM yyyy HH:mm:ss z");
+        blackhole.consume(format.parse(date).getTime());
+    }
+
+    @Benchmark
+    public void scanInPlace(Blackhole blackhole) {
+        for (int i = 0; i < 3; i++) {
+            blackhole.consume(RateLimitHeaders.parseNumber(limit, i));
+            blackhole.consume(RateLimitHeaders.parseNumber(remaining, i));
+            blackhole.consume(RateLimitHeaders.parseNumber(reset, i));
+        }
+        blackhole.consume(dateParser.parse(date));
+    }
+
+    @Benchmark
+    public void scanInPlaceUncachedDate(Blackhole blackhole) {
+        int[] values = new int[9];
+        RateLimitHeaders.parseTriplet(limit, values, 0);
+        RateLimitHeaders.parseTriplet(remaining, values, 3);
+        RateLimitHeaders.parseTriplet(reset, values, 6);
+        blackhole.consume(values);
+        blackhole.consume(new HttpDateParser().parse(date));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RateLimitHeaderBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
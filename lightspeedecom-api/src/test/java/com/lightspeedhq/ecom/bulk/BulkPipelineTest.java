@@ -0,0 +1,130 @@
+package com.lightspeedhq.ecom.bulk;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lightspeedhq.ecom.LightspeedEComAsyncClient;
+import com.lightspeedhq.ecom.LightspeedEComErrorException;
+import com.lightspeedhq.ecom.LimitException;
+import com.lightspeedhq.ecom.domain.LightspeedEComError;
+import feign.RetryableException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.SocketTimeoutException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BulkPipelineTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    private final BulkPipeline pipeline = new BulkPipeline(new LightspeedEComAsyncClient(null, null, executor), 3, 3)
+            .retryDelay(1, TimeUnit.MILLISECONDS);
+
+    @After
+    public void after() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void run_allSucceed_resultsInOrder() throws InterruptedException {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        BulkReport<Integer, Integer> report = pipeline.run(IntStream.range(0, 20).boxed()
+                .map(i -> BulkOperation.of(i, client -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    try {
+                        Thread.sleep(2);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                    running.decrementAndGet();
+                    return i * 2;
+                })));
+
+        assertEquals(20, report.getSucceededCount());
+        assertEquals(IntStream.range(0, 20).map(i -> i * 2).boxed().collect(Collectors.toList()),
+                report.getResults().stream().map(BulkResult::getResult).collect(Collectors.toList()));
+        assertTrue(maxRunning.get() <= 3);
+    }
+
+    @Test
+    public void run_throttled_retried() throws InterruptedException {
+        Map<Integer, AtomicInteger> attempts = new ConcurrentHashMap<>();
+        BulkReport<Integer, Integer> report = pipeline.run(IntStream.range(0, 5).boxed()
+                .map(i -> BulkOperation.of(i, client -> {
+                    if (attempts.computeIfAbsent(i, key -> new AtomicInteger()).incrementAndGet() < 2) {
+                        throw new LimitException();
+                    }
+                    return i;
+                })));
+
+        assertEquals(5, report.getSucceededCount());
+        report.getResults().forEach(result -> assertEquals(2, result.getAttempts()));
+    }
+
+    @Test
+    public void run_failures_reportedPerItem() throws InterruptedException {
+        BulkReport<Integer, Integer> report = pipeline.run(IntStream.range(0, 4).boxed()
+                .map(i -> BulkOperation.of(i, client -> {
+                    if (i == 1) {
+                        throw new IllegalStateException("invalid");
+                    }
+                    if (i == 2) {
+                        throw new LimitException();
+                    }
+                    return i;
+                })));
+
+        assertEquals(2, report.getFailedCount());
+        BulkResult<Integer, Integer> invalid = report.getResults().get(1);
+        assertTrue(invalid.getError() instanceof IllegalStateException);
+        assertEquals(1, invalid.getAttempts());
+        BulkResult<Integer, Integer> throttled = report.getResults().get(2);
+        assertTrue(throttled.getError() instanceof LimitException);
+        assertEquals(3, throttled.getAttempts());
+    }
+
+    @Test
+    public void run_timeout_notRetried() throws InterruptedException {
+        AtomicInteger creates = new AtomicInteger();
+        BulkReport<Integer, Integer> report = pipeline.run(Stream.of(BulkOperation.of(1, client -> {
+            creates.incrementAndGet();
+            throw new RetryableException("Read timed out executing POST /customers.json", new SocketTimeoutException("Read timed out"), null);
+        })));
+
+        assertEquals(1, creates.get());
+        BulkResult<Integer, Integer> result = report.getResults().get(0);
+        assertTrue(result.getError() instanceof RetryableException);
+        assertEquals(1, result.getAttempts());
+    }
+
+    @Test
+    public void run_tooManyRequests_retried() throws InterruptedException {
+        LightspeedEComErrorException tooManyRequests = new LightspeedEComErrorException("Too Many Requests", error(429));
+        BulkReport<Integer, Integer> report = pipeline.run(Stream.of(BulkOperation.of(1, client -> {
+            throw new RetryableException("Too many requests", tooManyRequests, null);
+        })));
+
+        assertEquals(3, report.getResults().get(0).getAttempts());
+    }
+
+    private static LightspeedEComError error(int code) {
+        try {
+            return new ObjectMapper().enable(DeserializationFeature.UNWRAP_ROOT_VALUE)
+                    .readValue("{\"error\":{\"code\":" + code + "}}", LightspeedEComError.class);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.lightspeedhq.ecom.codegen;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.ser.DefaultSerializerProvider;
+import com.fasterxml.jackson.datatype.jsr310.JSR310Module;
+import com.google.common.io.Resources;
+import com.lightspeedhq.ecom.domain.Customer;
+import com.lightspeedhq.ecom.domain.Order;
+import com.lightspeedhq.ecom.domain.OrderCodec;
+import com.lightspeedhq.ecom.jackson.ObjectMappers;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.TimeZone;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CodecModuleTest {
+
+    private static final String CUSTOMER = "{\"customer\": {\"id\": 1, \"createdAt\": \"2018-06-12T09:14:27+02:00\", \"isConfirmed\": true,"
+            + " \"remoteIp\": false, \"gender\": \"female\", \"birthDate\": false, \"isCompany\": true, \"unknown\": {\"id\": 3},"
+            + " \"addressBillingCountry\": {\"id\": 150, \"code\": \"nl\", \"code3\": \"nld\", \"title\": \"Netherlands, The\"},"
+            + " \"addressShippingCountry\": false, \"addressShippingCompany\": null}}";
+
+    private final ObjectMapper generated = ObjectMappers.create();
+
+    /**
+     * mapper as before the generated codecs
+     */
+    private final ObjectMapper reflection = new ObjectMapper()
+            .configure(SerializationFeature.WRAP_ROOT_VALUE, true)
+            .configure(DeserializationFeature.UNWRAP_ROOT_VALUE, true)
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+            .registerModule(new JSR310Module())
+            .setTimeZone(TimeZone.getTimeZone("UTC"));
+
+    private static JsonNode tree(String json) throws IOException {
+        return new ObjectMapper().readTree(json);
+    }
+
+    @Test
+    public void create_serializerOfOrder_generated() throws JsonMappingException {
+        DefaultSerializerProvider provider = ((DefaultSerializerProvider) generated.getSerializerProvider())
+                .createInstance(generated.getSerializationConfig(), generated.getSerializerFactory());
+
+        assertEquals(OrderCodec.Serializer.class, provider.findValueSerializer(Order.class, null).getClass());
+    }
+
+    @Test
+    public void readValue_order_sameAsReflection() throws IOException {
+        String json = "{\"order\": " + Resources.toString(Resources.getResource("com/lightspeedhq/ecom/benchmark/order.json"), StandardCharsets.UTF_8) + "}";
+
+        Order expected = reflection.readValue(json, Order.class);
+        Order order = generated.readValue(json, Order.class);
+
+        assertEquals(tree(reflection.writeValueAsString(expected)), tree(reflection.writeValueAsString(order)));
+        assertEquals(tree(reflection.writeValueAsString(expected)), tree(generated.writeValueAsString(expected)));
+    }
+
+    @Test
+    public void readValue_customer_sameAsReflection() throws IOException {
+        Customer expected = reflection.readValue(CUSTOMER, Customer.class);
+        Customer customer = generated.readValue(CUSTOMER, Customer.class);
+
+        assertEquals(tree(reflection.writeValueAsString(expected)), tree(reflection.writeValueAsString(customer)));
+        assertEquals(tree(reflection.writeValueAsString(expected)), tree(generated.writeValueAsString(expected)));
+        assertEquals("nl", customer.getAddressBillingCountry().getCode());
+        assertNull(customer.getAddressShippingCountry());
+    }
+
+    @Test(expected = JsonMappingException.class)
+    public void readValue_unknownEnumConstant_mappingException() throws IOException {
+        generated.readValue("{\"order\": {\"id\": 1, \"status\": \"unknown\"}}", Order.class);
+    }
+}
@@ -0,0 +1,75 @@
+package com.lightspeedhq.ecom.jackson;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.lightspeedhq.ecom.domain.Brand;
+import java.io.IOException;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class DateTimeCodecTest {
+
+    private static final String[] TIMES = {"2018-06-12T09:14:27+02:00", "2018-06-12T09:14:27Z", "1970-01-01T00:00:00+00:00",
+        "2000-02-29T23:59:59-05:30", "2018-12-31T23:00:00+14:00", "2018-06-12T09:14:27.123+02:00", " 2018-06-12T09:14:27.000000001Z "};
+
+    @Test
+    public void parse_fixedForm_sameAsFormatter() {
+        ZoneId utc = ZoneId.of("UTC");
+        for (String time : TIMES) {
+            ZonedDateTime expected = ZonedDateTime.parse(time.trim(), DateTimeFormatter.ISO_ZONED_DATE_TIME);
+            assertEquals(time, expected, parse(time, null));
+            assertEquals(time, expected.withZoneSameInstant(utc), parse(time, utc));
+        }
+        assertEquals(ZonedDateTime.parse("2018-06-12T09:14:27+02:00"), parse("2018-06-12T09:14:27+0200", null));
+    }
+
+    @Test
+    public void parse_otherForm_null() {
+        for (String time : new String[]{"", "2018-06-12", "2018-06-12T09:14:27", "2018-06-12T09:14:27+02", "2018-02-30T09:14:27Z",
+            "2018-06-12T09:14:27+02:00[Europe/Amsterdam]", "2018-06-12T24:00:00Z", "2018-06-12T09:14:27.Z"}) {
+            assertNull(time, parse(time, null));
+        }
+    }
+
+    @Test
+    public void format_sameAsFormatter() {
+        char[] buffer = new char[DateTimeCodec.MAX_LENGTH];
+        for (String time : TIMES) {
+            ZonedDateTime value = ZonedDateTime.parse(time.trim());
+            int length = DateTimeCodec.format(value, buffer);
+            if (value.getNano() == 0) {
+                assertEquals(DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(value), new String(buffer, 0, length));
+            } else {
+                assertEquals(-1, length);
+            }
+        }
+        assertSame(DateTimeCodec.offset(7200), ZoneOffset.ofHours(2));
+    }
+
+    @Test
+    public void mapper_readAndWrite() throws IOException {
+        ObjectMapper om = ObjectMappers.create();
+        Brand brand = om.readValue("{\"brand\": {\"createdAt\": \"2018-06-12T09:14:27+02:00\", \"updatedAt\": \"\"}}", Brand.class);
+
+        assertEquals(ZonedDateTime.parse("2018-06-12T07:14:27Z[UTC]"), brand.getCreatedAt());
+        assertNull(brand.getUpdatedAt());
+        assertTrue(om.writeValueAsString(brand).contains("\"createdAt\":1528787667.000000000"));
+
+        om.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+        om.configure(DeserializationFeature.ADJUST_DATES_TO_CONTEXT_TIME_ZONE, false);
+        brand = om.readValue("{\"brand\": {\"createdAt\": \"2018-06-12T09:14:27+02:00\"}}", Brand.class);
+
+        assertEquals(ZonedDateTime.parse("2018-06-12T09:14:27+02:00"), brand.getCreatedAt());
+        assertTrue(om.writeValueAsString(brand).contains("\"createdAt\":\"2018-06-12T09:14:27+02:00\""));
+    }
+
+    private static ZonedDateTime parse(String time, ZoneId zone) {
+        return DateTimeCodec.parse(time.toCharArray(), 0, time.length(), zone);
+    }
+}
@@ -0,0 +1,56 @@
+package com.lightspeedhq.ecom.jackson;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lightspeedhq.ecom.domain.Brand;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class JsonListReaderTest {
+
+    private final ObjectMapper om = new ObjectMapper()
+            .enable(DeserializationFeature.UNWRAP_ROOT_VALUE)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private JsonListReader<Brand> reader(String json) throws IOException {
+        return new JsonListReader<>(om, Brand.class, new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void forEach_list_elementsInOrder() throws IOException {
+        List<Brand> brands = new ArrayList<>();
+        try (JsonListReader<Brand> reader = reader("{\"brands\":[{\"id\":1,\"title\":\"a\"},{\"id\":2,\"extra\":{\"x\":[1]}}]}")) {
+            assertEquals(2, reader.forEach(brands::add));
+        }
+        assertEquals(1, brands.get(0).getId());
+        assertEquals("a", brands.get(0).getTitle());
+        assertEquals(2, brands.get(1).getId());
+    }
+
+    @Test
+    public void hasNext_falseList_empty() throws IOException {
+        try (JsonListReader<Brand> reader = reader("{\"brands\":false}")) {
+            assertFalse(reader.hasNext());
+        }
+    }
+
+    @Test
+    public void forEach_actionThrowsUncheckedIOException_thrownAsIs() throws IOException {
+        UncheckedIOException thrown = new UncheckedIOException(new IOException("sink"));
+        try (JsonListReader<Brand> reader = reader("{\"brands\":[{\"id\":1}]}")) {
+            reader.forEach(brand -> {
+                throw thrown;
+            });
+            fail();
+        } catch (UncheckedIOException ex) {
+            assertSame(thrown, ex);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.lightspeedhq.ecom.jackson;
+
+import com.lightspeedhq.ecom.domain.Customer;
+import com.lightspeedhq.ecom.domain.Gender;
+import com.lightspeedhq.ecom.domain.Order;
+import java.io.IOException;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ObjectMappersTest {
+
+    @Test
+    public void shared_falseOrValue_readByMapper() throws IOException {
+        Customer customer = ObjectMappers.shared().readValue(
+                "{\"customer\": {\"id\": 1, \"remoteIp\": false, \"userAgent\": \"curl\", \"gender\": \"female\", \"referralId\": false}}", Customer.class);
+
+        assertNull(customer.getRemoteIp());
+        assertEquals("curl", customer.getUserAgent());
+        assertEquals(Gender.FEMALE, customer.getGender());
+        assertNull(customer.getReferralId());
+    }
+
+    @Test
+    public void shared_resourceOrFalse_id() throws IOException {
+        Order order = ObjectMappers.shared().readValue(
+                "{\"order\": {\"id\": 1, \"language\": false, \"customer\": {\"resource\": {\"id\": 12, \"url\": \"customers/12\"}}}}", Order.class);
+        Order guest = ObjectMappers.shared().readValue("{\"order\": {\"id\": 2, \"customer\": false}}", Order.class);
+
+        assertNull(order.getLanguage());
+        assertEquals(12, order.getCustomerId());
+        assertEquals(ResourceIdDeserializer.VALUE_FALSE, guest.getCustomerId());
+    }
+}
@@ -0,0 +1,57 @@
+package com.lightspeedhq.ecom.jackson;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.lightspeedhq.ecom.domain.Resource;
+import java.io.IOException;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ResourceIdDeserializerTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    public static class Link {
+
+        @JsonDeserialize(using = ResourceIdDeserializer.class)
+        public int brandId;
+
+        @JsonDeserialize(using = ResourceIdDeserializer.class)
+        public Resource brand;
+
+        public String title;
+    }
+
+    @Test
+    public void deserialize_resource_idAndSkipsRest() throws IOException {
+        Link link = MAPPER.readValue("{\"brandId\": {\"meta\": {\"a\": [1, {\"b\": 2}]}, \"resource\": {\"url\": \"brands/7\", \"extra\": {\"id\": 9}, \"id\": 7, \"link\": \"https://api.webshopapp.com/nl/brands/7.json\"}},"
+                + " \"brand\": {\"resource\": {\"id\": 7, \"url\": \"brands/7\", \"link\": \"https://api.webshopapp.com/nl/brands/7.json\"}}, \"title\": \"next\"}", Link.class);
+
+        assertEquals(7, link.brandId);
+        assertEquals(7, link.brand.getId());
+        assertEquals("brands/7", link.brand.getUrl());
+        assertEquals("https://api.webshopapp.com/nl/brands/7.json", link.brand.getLink());
+        assertEquals("next", link.title);
+    }
+
+    @Test
+    public void deserialize_false_valueFalse() throws IOException {
+        Link link = MAPPER.readValue("{\"brandId\": false, \"brand\": false, \"title\": \"next\"}", Link.class);
+
+        assertEquals(ResourceIdDeserializer.VALUE_FALSE, link.brandId);
+        assertNull(link.brand);
+        assertEquals("next", link.title);
+    }
+
+    @Test
+    public void deserialize_written_sameAsRead() throws IOException {
+        Link read = MAPPER.readValue("{\"brandId\": {\"resource\": {\"id\": 7}}, \"brand\": {\"resource\": {\"id\": 7, \"url\": \"brands/7\", \"link\": \"https://api.webshopapp.com/nl/brands/7.json\"}}}", Link.class);
+        Link link = MAPPER.readValue(MAPPER.writeValueAsString(read), Link.class);
+
+        assertEquals(7, link.brandId);
+        assertEquals(7, link.brand.getId());
+        assertEquals("brands/7", link.brand.getUrl());
+        assertEquals("https://api.webshopapp.com/nl/brands/7.json", link.brand.getLink());
+    }
+}
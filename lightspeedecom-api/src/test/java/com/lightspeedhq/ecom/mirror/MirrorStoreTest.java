@@ -0,0 +1,195 @@
+package com.lightspeedhq.ecom.mirror;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.lightspeedhq.ecom.domain.Product;
+import com.lightspeedhq.ecom.domain.Variant;
+import com.lightspeedhq.ecom.jackson.ObjectMappers;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.*;
+
+public class MirrorStoreTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static class Item {
+
+        @JsonProperty
+        private final int id;
+
+        @JsonProperty
+        private final String name;
+
+        @JsonCreator
+        Item(@JsonProperty("id") int id, @JsonProperty("name") String name) {
+            this.id = id;
+            this.name = name;
+        }
+    }
+
+    private MirrorStore<Item> open(Path directory) throws IOException {
+        return new MirrorStore<>(directory, Item.class, item -> item.id, 256);
+    }
+
+    @Test
+    public void get_afterReopen_latestVersions() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        try (MirrorStore<Item> store = open(directory)) {
+            for (int i = 1; i <= 10; i++) {
+                store.put(new Item(i, "v1"));
+            }
+            store.put(new Item(3, "v2"));
+            store.remove(4);
+        }
+        try (MirrorStore<Item> store = open(directory)) {
+            assertEquals(9, store.size());
+            assertEquals("v2", store.get(3).name);
+            assertEquals("v1", store.get(10).name);
+            assertNull(store.get(4));
+            assertTrue(store.getGarbage() > 0);
+        }
+    }
+
+    @Test
+    public void compact_garbage_removedAndKeepsLiveRecords() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        try (MirrorStore<Item> store = open(directory)) {
+            for (int i = 0; i < 20; i++) {
+                store.put(new Item(1, "v" + i));
+            }
+            store.put(new Item(2, "x"));
+            store.compact();
+
+            assertEquals(0, store.getGarbage());
+            assertEquals("v19", store.get(1).name);
+            store.put(new Item(3, "y"));
+        }
+        try (MirrorStore<Item> store = open(directory)) {
+            assertEquals(3, store.size());
+            assertEquals("x", store.get(2).name);
+        }
+    }
+
+    @Test
+    public void open_tornRecord_ignoredAndOverwritten() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        try (MirrorStore<Item> store = open(directory)) {
+            store.put(new Item(1, "a"));
+        }
+        try (RandomAccessFile file = new RandomAccessFile(directory.resolve("segment-000000.dat").toFile(), "rw")) {
+            int position = 0;
+            file.seek(0);
+            while (file.readInt() != 0) {
+                position += 8 + file.readInt();
+                file.seek(position);
+            }
+            file.writeInt(20);//length written, the id not yet
+        }
+        try (MirrorStore<Item> store = open(directory)) {
+            assertEquals(1, store.size());
+            assertFalse(store.contains(0));
+            store.put(new Item(2, "b"));
+        }
+        try (MirrorStore<Item> store = open(directory)) {
+            assertEquals(2, store.size());
+            assertEquals("b", store.get(2).name);
+        }
+    }
+
+    @Test
+    public void open_completeCompaction_finished() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        try (MirrorStore<Item> store = open(directory)) {
+            for (int i = 1; i <= 10; i++) {
+                store.put(new Item(i, "old"));
+            }
+        }
+        try (MirrorStore<Item> compacted = open(directory.resolve("compacting"))) {
+            compacted.put(new Item(1, "new"));
+        }
+        Files.write(directory.resolve("compacting").resolve("compacted"), "1".getBytes(StandardCharsets.US_ASCII));
+        try (MirrorStore<Item> store = open(directory)) {
+            assertEquals(1, store.size());
+            assertEquals("new", store.get(1).name);
+        }
+        assertFalse(Files.exists(directory.resolve("compacting")));
+        assertFalse(Files.exists(directory.resolve("segment-000001.dat")));
+    }
+
+    @Test
+    public void open_incompleteCompaction_dropped() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        try (MirrorStore<Item> store = open(directory)) {
+            for (int i = 1; i <= 10; i++) {
+                store.put(new Item(i, "old"));
+            }
+        }
+        try (MirrorStore<Item> compacted = open(directory.resolve("compacting"))) {
+            compacted.put(new Item(1, "new"));
+        }
+        try (MirrorStore<Item> store = open(directory)) {
+            assertEquals(10, store.size());
+            assertEquals("old", store.get(1).name);
+        }
+        assertFalse(Files.exists(directory.resolve("compacting")));
+    }
+
+    @Test
+    public void get_product_sameAsRead() throws IOException {
+        Product read = ObjectMappers.shared().readValue("{\"product\": {\"id\": 12, \"createdAt\": \"2013-09-24T21:48:17+02:00\", "
+                + "\"updatedAt\": \"2014-01-02T10:00:00+01:00\", \"isVisible\": true, \"visibility\": \"auto\", "
+                + "\"title\": \"Shirt\", \"brand\": {\"resource\": {\"id\": 5, \"url\": \"brands/5\"}}, "
+                + "\"deliverydate\": false, \"supplier\": {\"resource\": {\"id\": 7}}, "
+                + "\"image\": {\"id\": 3, \"src\": \"https://cdn/3.jpg\"}}}", Product.class);
+        Path directory = folder.getRoot().toPath();
+        try (MirrorStore<Product> store = new MirrorStore<>(directory, Product.class, Product::getId, 4096)) {
+            store.put(read);
+        }
+        try (MirrorStore<Product> store = new MirrorStore<>(directory, Product.class, Product::getId, 4096)) {
+            Product product = store.get(12);
+            assertEquals("Shirt", product.getTitle());
+            assertTrue(product.isVisible());
+            assertEquals(Product.Visibility.AUTO, product.getVisibility());
+            assertTrue(read.getCreatedAt().isEqual(product.getCreatedAt()));
+            assertTrue(read.getUpdatedAt().isEqual(product.getUpdatedAt()));
+            assertEquals(5, product.getBrandId());
+            assertEquals(read.getDeliverydateId(), product.getDeliverydateId());
+            assertEquals(7, product.getSupplierId());
+            assertEquals(3, product.getImage().getId());
+            assertEquals("https://cdn/3.jpg", product.getImage().getSrc());
+        }
+    }
+
+    @Test
+    public void get_variant_sameAsRead() throws IOException {
+        Variant read = ObjectMappers.shared().readValue("{\"variant\": {\"id\": 21, \"createdAt\": \"2013-09-24T21:48:17+02:00\", "
+                + "\"isDefault\": true, \"sku\": \"SH-1\", \"priceIncl\": 12.1, \"stockLevel\": 4, \"matrix\": false, "
+                + "\"stockTracking\": \"enabled\", \"tax\": {\"resource\": {\"id\": 9}}, "
+                + "\"product\": {\"resource\": {\"id\": 12}}}}", Variant.class);
+        Path directory = folder.getRoot().toPath();
+        try (MirrorStore<Variant> store = new MirrorStore<>(directory, Variant.class, Variant::getId, 4096)) {
+            store.put(read);
+        }
+        try (MirrorStore<Variant> store = new MirrorStore<>(directory, Variant.class, Variant::getId, 4096)) {
+            Variant variant = store.get(21);
+            assertTrue(variant.isDefault());
+            assertEquals("SH-1", variant.getSku());
+            assertEquals(12.1f, variant.getPriceIncl(), 0f);
+            assertEquals(4, variant.getStockLevel());
+            assertNull(variant.getMatrix());
+            assertEquals(read.getStockTracking(), variant.getStockTracking());
+            assertTrue(read.getCreatedAt().isEqual(variant.getCreatedAt()));
+            assertEquals(9, variant.getTaxId());
+            assertEquals(12, variant.getProductId());
+        }
+    }
+}
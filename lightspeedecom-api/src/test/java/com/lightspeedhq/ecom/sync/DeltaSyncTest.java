@@ -0,0 +1,57 @@
+package com.lightspeedhq.ecom.sync;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.*;
+
+public class DeltaSyncTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final ZonedDateTime now = ZonedDateTime.of(2018, 6, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+
+    private final List<ZonedDateTime> records = Arrays.asList(now.minusDays(2), now.minusDays(1), now.minusMinutes(1));
+
+    private final List<Object> updatedAtMin = new ArrayList<>();
+
+    /**
+     * records are their own updatedAt
+     */
+    private List<ZonedDateTime> request(Map<String, Object> filters) {
+        updatedAtMin.add(filters.get("updated_at_min"));
+        return records.stream()
+                .filter(record -> !filters.containsKey("updated_at_min") || !record.isBefore(now.minusMinutes(5)))
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void sync_twice_secondOnlyRequestsDelta() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("marks.properties");
+        DeltaSync deltaSync = new DeltaSync(new FileHighWaterMarkStore(file), Duration.ofMinutes(5), Clock.fixed(now.toInstant(), ZoneOffset.UTC));
+        List<ZonedDateTime> received = new ArrayList<>();
+
+        assertEquals(3, deltaSync.sync("orders", this::request, Function.identity(), received::add));
+        //latest record is within the overlap, mark is capped at the start minus the overlap
+        assertEquals(now.minusMinutes(5).toInstant(), new FileHighWaterMarkStore(file).get("orders").toInstant());
+
+        assertEquals(1, deltaSync.sync("orders", this::request, Function.identity(), received::add));
+        assertEquals(Arrays.asList(null, "2018-06-01 11:55:00"), updatedAtMin);
+        assertEquals(Instant.parse("2018-06-01T11:59:00Z"), received.get(3).toInstant());
+    }
+}
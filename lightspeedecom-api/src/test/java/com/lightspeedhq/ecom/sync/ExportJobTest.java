@@ -0,0 +1,72 @@
+package com.lightspeedhq.ecom.sync;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.*;
+
+public class ExportJobTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * 10 records, with ids 1 to 10
+     */
+    private static List<Integer> page(Map<String, Object> filters) {
+        int limit = (Integer) filters.get("limit");
+        int from = ((Integer) filters.get("page") - 1) * limit;
+        return IntStream.rangeClosed(from + 1, Math.min(from + limit, 10)).boxed().collect(Collectors.toList());
+    }
+
+    @Test
+    public void run_stoppedAndResumed_continuesAtCheckpoint() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        List<Integer> exported = new ArrayList<>();
+        ExportJob<Integer> job = new ExportJob<>(directory, ExportJobTest::page, id -> id, Collections.singletonMap("limit", 3));
+        try {
+            job.run(id -> {
+                if (id == 5) {
+                    throw new IllegalStateException("stopped");
+                }
+                exported.add(id);
+            });
+            fail();
+        } catch (IllegalStateException expected) {
+        }
+
+        //the page with 4, 5 and 6 is exported again
+        ExportJob<Integer> resumed = new ExportJob<>(directory, ExportJobTest::page, id -> id, Collections.singletonMap("limit", 3));
+        assertEquals(2, resumed.getPage());
+        assertEquals(7, resumed.run(exported::add));
+        assertTrue(resumed.isDone());
+        assertEquals(IntStream.rangeClosed(1, 10).boxed().collect(Collectors.toList()), exported.stream().distinct().collect(Collectors.toList()));
+        assertEquals(0, new ExportJob<Integer>(directory, ExportJobTest::page, id -> id, Collections.singletonMap("limit", 3)).run(exported::add));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void open_otherFilters_exception() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        Map<String, Object> filters = new HashMap<>();
+        filters.put("limit", 3);
+        filters.put("page", 2);
+        new ExportJob<>(directory, ExportJobTest::page, id -> id, filters).run(id -> {
+        });
+        //other first page is fine, the checkpoint has the next page
+        filters.put("page", 1);
+        assertTrue(new ExportJob<>(directory, ExportJobTest::page, id -> id, filters).isDone());
+
+        filters.put("status", "paid");
+        new ExportJob<>(directory, ExportJobTest::page, id -> id, filters);
+    }
+}
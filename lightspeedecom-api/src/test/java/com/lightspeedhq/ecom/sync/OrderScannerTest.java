@@ -0,0 +1,162 @@
+package com.lightspeedhq.ecom.sync;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lightspeedhq.ecom.LightspeedEComAsyncClient;
+import com.lightspeedhq.ecom.LightspeedEComClient;
+import com.lightspeedhq.ecom.domain.Count;
+import com.lightspeedhq.ecom.domain.Order;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Proxy;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class OrderScannerTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final ZonedDateTime START = ZonedDateTime.of(2018, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    /**
+     * number of order pages that fail before they succeed
+     */
+    private final AtomicInteger failures = new AtomicInteger();
+
+    /**
+     * number of orders counted for every second
+     */
+    private int countPerSecond = 1;
+
+    private final AtomicInteger countRequests = new AtomicInteger();
+
+    @After
+    public void after() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * client with an order every second from START, with the second as id
+     */
+    private LightspeedEComAsyncClient asyncClient(int orders) {
+        LightspeedEComClient client = (LightspeedEComClient) Proxy.newProxyInstance(LightspeedEComClient.class.getClassLoader(), new Class<?>[]{LightspeedEComClient.class},
+                (proxy, method, args) -> {
+                    List<Integer> ids = ids(orders, (Map<String, Object>) args[0]);
+                    if (method.getName().equals("getOrdersCount")) {
+                        countRequests.incrementAndGet();
+                        Count count = new Count();
+                        count.set(ids.size() * countPerSecond);
+                        return count;
+                    }
+                    if (method.getName().equals("getOrders")) {
+                        if (failures.getAndDecrement() > 0) {
+                            throw new IllegalStateException("unavailable");
+                        }
+                        int limit = (Integer) ((Map<String, Object>) args[0]).get("limit");
+                        int from = ((Integer) ((Map<String, Object>) args[0]).get("page") - 1) * limit;
+                        Order.List list = new Order.List();
+                        ids.subList(Math.min(from, ids.size()), Math.min(from + limit, ids.size())).forEach(id -> list.add(order(id)));
+                        return list;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        return new LightspeedEComAsyncClient(client, null, executor);
+    }
+
+    private static List<Integer> ids(int orders, Map<String, Object> filters) {
+        int min = second((String) filters.get("created_at_min"));
+        int max = second((String) filters.get("created_at_max"));
+        return IntStream.rangeClosed(Math.max(0, min), Math.min(orders - 1, max)).boxed().collect(Collectors.toList());
+    }
+
+    private static int second(String filter) {
+        return (int) (ZonedDateTime.parse(filter.replace(' ', 'T') + "Z").toEpochSecond() - START.toEpochSecond());
+    }
+
+    private static Order order(int id) {
+        try {
+            return MAPPER.readValue("{\"id\":" + id + "}", Order.class);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Test
+    public void partition_largeRange_partsAtMostPartitionSize() throws InterruptedException {
+        List<OrderScanner.Partition> partitions = new OrderScanner(asyncClient(1000), 300, 4, 1)
+                .partition(START, START.plusSeconds(2000), Collections.emptyMap());
+
+        assertTrue(partitions.size() > 1);
+        partitions.forEach(partition -> assertTrue(partition.getCount() <= 300));
+        assertEquals(START, partitions.get(0).getFrom());
+    }
+
+    @Test
+    public void partition_partsDoNotOverlap() throws InterruptedException {
+        List<OrderScanner.Partition> partitions = new OrderScanner(asyncClient(1000), 300, 4, 1)
+                .partition(START, START.plusSeconds(999), Collections.emptyMap());
+
+        for (int i = 1; i < partitions.size(); i++) {
+            assertEquals(partitions.get(i - 1).getTo().plusSeconds(1), partitions.get(i).getFrom());
+        }
+        assertEquals(1000, partitions.stream().mapToInt(OrderScanner.Partition::getCount).sum());
+    }
+
+    @Test
+    public void partition_secondAbovePartitionSize_singleSecondParts() throws InterruptedException {
+        countPerSecond = 500;
+        List<OrderScanner.Partition> partitions = new OrderScanner(asyncClient(1000), 300, 4, 1)
+                .partition(START, START.plusSeconds(3), Collections.emptyMap());
+
+        assertEquals(4, partitions.size());
+        for (int i = 0; i < 4; i++) {
+            assertEquals(START.plusSeconds(i), partitions.get(i).getFrom());
+            assertEquals(START.plusSeconds(i), partitions.get(i).getTo());
+            assertEquals(500, partitions.get(i).getCount());
+        }
+        assertEquals(7, countRequests.get());
+    }
+
+    @Test
+    public void scan_partitions_allOrdersOnceInOrder() throws InterruptedException {
+        List<Integer> received = new ArrayList<>();
+        int count = new OrderScanner(asyncClient(1000), 300, 3, 1)
+                .scan(START, START.plusSeconds(2000), Collections.emptyMap(), order -> received.add(order.getId()));
+
+        assertEquals(1000, count);
+        assertEquals(IntStream.range(0, 1000).boxed().collect(Collectors.toList()), received);
+    }
+
+    @Test
+    public void scan_failingPage_partitionScannedAgain() throws InterruptedException {
+        failures.set(2);
+        List<Integer> received = new ArrayList<>();
+        int count = new OrderScanner(asyncClient(600), 300, 2, 3)
+                .scan(START, START.plusSeconds(600), Collections.emptyMap(), order -> received.add(order.getId()));
+
+        assertEquals(600, count);
+        assertEquals(600, received.stream().distinct().count());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void scan_attemptsUsed_throws() throws InterruptedException {
+        failures.set(Integer.MAX_VALUE);
+        new OrderScanner(asyncClient(600), 300, 2, 2)
+                .scan(START, START.plusSeconds(600), Collections.emptyMap(), order -> {
+                });
+    }
+}